@@ -0,0 +1,158 @@
+package com.epam.aws;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.AmazonSQSClientBuilder;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClientBuilder;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.SsmClientBuilder;
+
+import java.time.Duration;
+
+/**
+ * Container-wide AWS clients with tuned timeouts, retries and connection reuse.
+ * <p>
+ * Every client lives in its own holder class, so it is built on first use and a Lambda never pays for a client it
+ * does not call. The SDKs are provided-scope dependencies of this module: a Lambda module must declare the SDK of
+ * every client it asks for ({@code url-connection-client} in addition for Cognito and SSM).
+ * <p>
+ * The region is taken from {@code AWS_REGION}, which Lambda always sets, so the SDK skips its region provider chain.
+ */
+public final class AwsClients {
+    static final int MAX_CONNECTIONS = 50;
+    static final int MAX_ERROR_RETRY = 3;
+    static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(1);
+    static final Duration SOCKET_TIMEOUT = Duration.ofSeconds(5);
+    static final Duration CALL_ATTEMPT_TIMEOUT = Duration.ofSeconds(5);
+    // covers all retries of one call
+    static final Duration CALL_TIMEOUT = Duration.ofSeconds(15);
+    static final Duration CONNECTION_MAX_IDLE = Duration.ofSeconds(60);
+
+    private static final String REGION = System.getenv("AWS_REGION");
+
+    private AwsClients() {
+    }
+
+    public static AmazonDynamoDB dynamoDB() {
+        return DynamoDBHolder.CLIENT;
+    }
+
+    public static AmazonS3 s3() {
+        return S3Holder.CLIENT;
+    }
+
+    public static AmazonSQS sqs() {
+        return SqsHolder.CLIENT;
+    }
+
+    public static CognitoIdentityProviderClient cognito() {
+        return CognitoHolder.CLIENT;
+    }
+
+    public static SsmClient ssm() {
+        return SsmHolder.CLIENT;
+    }
+
+    static ClientConfiguration clientConfiguration(RetryPolicy retryPolicy) {
+        return new ClientConfiguration()
+                .withMaxConnections(MAX_CONNECTIONS)
+                .withConnectionTimeout((int) CONNECTION_TIMEOUT.toMillis())
+                .withSocketTimeout((int) SOCKET_TIMEOUT.toMillis())
+                .withRequestTimeout((int) CALL_ATTEMPT_TIMEOUT.toMillis())
+                .withClientExecutionTimeout((int) CALL_TIMEOUT.toMillis())
+                .withConnectionMaxIdleMillis(CONNECTION_MAX_IDLE.toMillis())
+                .withTcpKeepAlive(true)
+                .withRetryPolicy(retryPolicy);
+    }
+
+    private static class DynamoDBHolder {
+        static final AmazonDynamoDB CLIENT = create();
+
+        private static AmazonDynamoDB create() {
+            AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard()
+                    .withClientConfiguration(clientConfiguration(
+                            PredefinedRetryPolicies.getDynamoDBDefaultRetryPolicyWithCustomMaxRetries(MAX_ERROR_RETRY)));
+            if (REGION != null) {
+                builder = builder.withRegion(REGION);
+            }
+            return builder.build();
+        }
+    }
+
+    private static class S3Holder {
+        static final AmazonS3 CLIENT = create();
+
+        private static AmazonS3 create() {
+            AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+                    .withClientConfiguration(clientConfiguration(
+                            PredefinedRetryPolicies.getDefaultRetryPolicyWithCustomMaxRetries(MAX_ERROR_RETRY)));
+            if (REGION != null) {
+                builder = builder.withRegion(REGION);
+            }
+            return builder.build();
+        }
+    }
+
+    private static class SqsHolder {
+        static final AmazonSQS CLIENT = create();
+
+        private static AmazonSQS create() {
+            AmazonSQSClientBuilder builder = AmazonSQSClientBuilder.standard()
+                    .withClientConfiguration(clientConfiguration(
+                            PredefinedRetryPolicies.getDefaultRetryPolicyWithCustomMaxRetries(MAX_ERROR_RETRY)));
+            if (REGION != null) {
+                builder = builder.withRegion(REGION);
+            }
+            return builder.build();
+        }
+    }
+
+    private static class CognitoHolder {
+        static final CognitoIdentityProviderClient CLIENT = create();
+
+        private static CognitoIdentityProviderClient create() {
+            // the URLConnection client starts much faster than the default Apache one
+            CognitoIdentityProviderClientBuilder builder = CognitoIdentityProviderClient.builder()
+                    .httpClientBuilder(UrlConnectionHttpClient.builder()
+                            .connectionTimeout(CONNECTION_TIMEOUT)
+                            .socketTimeout(SOCKET_TIMEOUT))
+                    .overrideConfiguration(ClientOverrideConfiguration.builder()
+                            .apiCallAttemptTimeout(CALL_ATTEMPT_TIMEOUT)
+                            .apiCallTimeout(CALL_TIMEOUT)
+                            .build());
+            if (REGION != null) {
+                builder = builder.region(Region.of(REGION));
+            }
+            return builder.build();
+        }
+    }
+
+    private static class SsmHolder {
+        static final SsmClient CLIENT = create();
+
+        private static SsmClient create() {
+            SsmClientBuilder builder = SsmClient.builder()
+                    .httpClientBuilder(UrlConnectionHttpClient.builder()
+                            .connectionTimeout(CONNECTION_TIMEOUT)
+                            .socketTimeout(SOCKET_TIMEOUT))
+                    .overrideConfiguration(ClientOverrideConfiguration.builder()
+                            .apiCallAttemptTimeout(CALL_ATTEMPT_TIMEOUT)
+                            .apiCallTimeout(CALL_TIMEOUT)
+                            .build());
+            if (REGION != null) {
+                builder = builder.region(Region.of(REGION));
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.epam.aws;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Puts many items with BatchWriteItem. Items are split into 25-item chunks that are written in parallel;
+ * {@code UnprocessedItems} of a chunk are retried with exponential backoff and full jitter.
+ * <p>
+ * Chunks run on the given executor, or on a shared daemon pool of this class.
+ */
+public class BatchWriter {
+    public static final int MAX_BATCH_SIZE = 25;
+    private static final int MAX_ATTEMPTS = 6;
+    private static final long BASE_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService defaultExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dynamodb-batch-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AmazonDynamoDB client;
+    private final Executor executor;
+
+    public BatchWriter(AmazonDynamoDB client) {
+        this(client, defaultExecutor);
+    }
+
+    public BatchWriter(AmazonDynamoDB client, Executor executor) {
+        this.client = client;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the error of each input item, in input order; null where the item was written
+     */
+    public String[] putAll(String tableName, List<Map<String, AttributeValue>> items) {
+        String[] errors = new String[items.size()];
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += MAX_BATCH_SIZE) {
+            final int start = from;
+            final int end = Math.min(from + MAX_BATCH_SIZE, items.size());
+            chunks.add(CompletableFuture.runAsync(() -> writeChunk(tableName, items, start, end, errors), executor));
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+
+        return errors;
+    }
+
+    /**
+     * Exponential backoff with full jitter before the given attempt (the first retry is attempt 2).
+     */
+    public static long backoffMillis(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << (attempt - 2));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void writeChunk(String tableName, List<Map<String, AttributeValue>> items, int start, int end, String[] errors) {
+        Map<Map<String, AttributeValue>, Integer> positions = new HashMap<>();
+        List<WriteRequest> pending = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            positions.put(items.get(i), i);
+            pending.add(new WriteRequest().withPutRequest(new PutRequest().withItem(items.get(i))));
+        }
+
+        try {
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                if (attempt > MAX_ATTEMPTS) {
+                    markFailed(pending, positions, errors, String.format("Unprocessed after %d attempts", MAX_ATTEMPTS));
+                    return;
+                }
+                if (attempt > 1) {
+                    Thread.sleep(backoffMillis(attempt));
+                }
+
+                BatchWriteItemResult result = client.batchWriteItem(
+                        new BatchWriteItemRequest().withRequestItems(Map.of(tableName, pending)));
+                pending = result.getUnprocessedItems() == null
+                        ? List.of()
+                        : result.getUnprocessedItems().getOrDefault(tableName, List.of());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markFailed(pending, positions, errors, "Interrupted");
+        } catch (RuntimeException e) {
+            markFailed(pending, positions, errors, e.getMessage());
+        }
+    }
+
+    private static void markFailed(List<WriteRequest> pending, Map<Map<String, AttributeValue>, Integer> positions,
+                                   String[] errors, String message) {
+        for (WriteRequest request : pending) {
+            Integer position = positions.get(request.getPutRequest().getItem());
+            if (position != null) {
+                errors[position] = message;
+            }
+        }
+    }
+}
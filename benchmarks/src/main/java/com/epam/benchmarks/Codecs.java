@@ -0,0 +1,202 @@
+package com.epam.benchmarks;
+
+import com.epam.benchmarks.Models.EventModel;
+import com.epam.benchmarks.Models.EventRequest;
+import com.epam.benchmarks.Models.ReservationRecord;
+import com.epam.benchmarks.Models.ResponseBody;
+import com.epam.benchmarks.Models.TableRecord;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hand-written streaming codecs for the benchmarked shapes: no reflection, no intermediate trees.
+ * Unknown fields are skipped and missing ones stay null, as with reflective Gson.
+ */
+final class Codecs {
+    static final TypeAdapter<ReservationRecord> RESERVATION = new ReservationAdapter();
+    static final TypeAdapter<TableRecord> TABLE = new TableAdapter();
+    static final TypeAdapter<EventRequest> EVENT_REQUEST = new EventRequestAdapter();
+    static final TypeAdapter<ResponseBody> RESPONSE_BODY = new ResponseBodyAdapter();
+
+    private Codecs() {
+    }
+
+    private static final class ReservationAdapter extends TypeAdapter<ReservationRecord> {
+        @Override
+        public void write(JsonWriter out, ReservationRecord value) throws IOException {
+            out.beginObject()
+                    .name("tableNumber").value(value.tableNumber())
+                    .name("clientName").value(value.clientName())
+                    .name("phoneNumber").value(value.phoneNumber())
+                    .name("date").value(value.date())
+                    .name("slotTimeStart").value(value.slotTimeStart())
+                    .name("slotTimeEnd").value(value.slotTimeEnd())
+                    .endObject();
+        }
+
+        @Override
+        public ReservationRecord read(JsonReader in) throws IOException {
+            Integer tableNumber = null;
+            String clientName = null;
+            String phoneNumber = null;
+            String date = null;
+            String slotTimeStart = null;
+            String slotTimeEnd = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "tableNumber" -> tableNumber = nextInteger(in);
+                    case "clientName" -> clientName = nextString(in);
+                    case "phoneNumber" -> phoneNumber = nextString(in);
+                    case "date" -> date = nextString(in);
+                    case "slotTimeStart" -> slotTimeStart = nextString(in);
+                    case "slotTimeEnd" -> slotTimeEnd = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ReservationRecord(tableNumber, clientName, phoneNumber, date, slotTimeStart, slotTimeEnd);
+        }
+    }
+
+    private static final class TableAdapter extends TypeAdapter<TableRecord> {
+        @Override
+        public void write(JsonWriter out, TableRecord value) throws IOException {
+            out.beginObject()
+                    .name("id").value(value.id())
+                    .name("number").value(value.number())
+                    .name("places").value(value.places())
+                    .name("isVip").value(value.isVip());
+            if (value.minOrder() != null) {
+                out.name("minOrder").value(value.minOrder());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public TableRecord read(JsonReader in) throws IOException {
+            Integer id = null;
+            Integer number = null;
+            Integer places = null;
+            Boolean isVip = null;
+            Integer minOrder = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = nextInteger(in);
+                    case "number" -> number = nextInteger(in);
+                    case "places" -> places = nextInteger(in);
+                    case "isVip" -> isVip = nextBoolean(in);
+                    case "minOrder" -> minOrder = nextInteger(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new TableRecord(id, number, places, isVip, minOrder);
+        }
+    }
+
+    private static final class EventRequestAdapter extends TypeAdapter<EventRequest> {
+        @Override
+        public void write(JsonWriter out, EventRequest value) throws IOException {
+            out.beginObject().name("principalId").value(value.principalId()).name("content");
+            writeStringMap(out, value.content());
+            out.endObject();
+        }
+
+        @Override
+        public EventRequest read(JsonReader in) throws IOException {
+            int principalId = 0;
+            Map<String, String> content = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "principalId" -> principalId = in.nextInt();
+                    case "content" -> content = readStringMap(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new EventRequest(principalId, content);
+        }
+    }
+
+    private static final class ResponseBodyAdapter extends TypeAdapter<ResponseBody> {
+        @Override
+        public void write(JsonWriter out, ResponseBody value) throws IOException {
+            EventModel event = value.event();
+            out.beginObject().name("statusCode").value(value.statusCode()).name("event");
+            out.beginObject()
+                    .name("id").value(event.id())
+                    .name("principalId").value(event.principalId())
+                    .name("createdAt").value(event.createdAt())
+                    .name("body");
+            writeStringMap(out, event.body());
+            out.endObject().endObject();
+        }
+
+        @Override
+        public ResponseBody read(JsonReader in) {
+            throw new UnsupportedOperationException("response bodies are only written");
+        }
+    }
+
+    private static Integer nextInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+
+    private static Boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextBoolean();
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static Map<String, String> readStringMap(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            map.put(in.nextName(), nextString(in));
+        }
+        in.endObject();
+        return map;
+    }
+
+    private static void writeStringMap(JsonWriter out, Map<String, String> map) throws IOException {
+        if (map == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            out.name(entry.getKey()).value(entry.getValue());
+        }
+        out.endObject();
+    }
+}
@@ -0,0 +1,37 @@
+package com.epam.benchmarks;
+
+import java.util.Map;
+
+/**
+ * Copies of the request and response shapes of the handlers, which keep theirs private.
+ * Keep them in sync with task05 {@code ApiHandler} and task11 {@code DynamoDBHandler}.
+ */
+final class Models {
+    static final String RESERVATION_BODY = "{\"tableNumber\":15,\"clientName\":\"John Doe\",\"phoneNumber\":\"+1 555 0100\","
+            + "\"date\":\"2024-05-01\",\"slotTimeStart\":\"13:00\",\"slotTimeEnd\":\"15:00\"}";
+    static final String TABLE_BODY = "{\"id\":15,\"number\":15,\"places\":8,\"isVip\":true,\"minOrder\":1000}";
+    static final String EVENT_BODY = "{\"principalId\":10,\"content\":{\"name\":\"John\",\"surname\":\"Doe\"}}";
+
+    private Models() {
+    }
+
+    record ReservationRecord(Integer tableNumber,
+                             String clientName,
+                             String phoneNumber,
+                             String date,
+                             String slotTimeStart,
+                             String slotTimeEnd) {
+    }
+
+    record TableRecord(Integer id, Integer number, Integer places, Boolean isVip, Integer minOrder) {
+    }
+
+    record EventRequest(int principalId, Map<String, String> content) {
+    }
+
+    record EventModel(String id, int principalId, String createdAt, Map<String, String> body) {
+    }
+
+    record ResponseBody(int statusCode, EventModel event) {
+    }
+}
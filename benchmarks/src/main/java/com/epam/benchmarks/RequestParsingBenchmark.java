@@ -0,0 +1,107 @@
+package com.epam.benchmarks;
+
+import com.epam.benchmarks.Models.EventRequest;
+import com.epam.benchmarks.Models.ReservationRecord;
+import com.epam.benchmarks.Models.TableRecord;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of request bodies: the pretty-printing Gson the handlers were built with, a shared compact Gson,
+ * a type adapter looked up once, and hand-written codecs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RequestParsingBenchmark {
+    private final Gson prettyGson = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson compactGson = new Gson();
+
+    private TypeAdapter<ReservationRecord> reservationAdapter;
+    private TypeAdapter<TableRecord> tableAdapter;
+    private TypeAdapter<EventRequest> eventRequestAdapter;
+
+    @Setup
+    public void setUp() {
+        reservationAdapter = compactGson.getAdapter(ReservationRecord.class);
+        tableAdapter = compactGson.getAdapter(TableRecord.class);
+        eventRequestAdapter = compactGson.getAdapter(EventRequest.class);
+    }
+
+    @Benchmark
+    public ReservationRecord reservationPrettyGson() {
+        return prettyGson.fromJson(Models.RESERVATION_BODY, ReservationRecord.class);
+    }
+
+    @Benchmark
+    public ReservationRecord reservationCompactGson() {
+        return compactGson.fromJson(Models.RESERVATION_BODY, ReservationRecord.class);
+    }
+
+    @Benchmark
+    public ReservationRecord reservationCachedAdapter() throws IOException {
+        return reservationAdapter.fromJson(Models.RESERVATION_BODY);
+    }
+
+    @Benchmark
+    public ReservationRecord reservationHandWritten() throws IOException {
+        return Codecs.RESERVATION.fromJson(Models.RESERVATION_BODY);
+    }
+
+    @Benchmark
+    public TableRecord tablePrettyGson() {
+        return prettyGson.fromJson(Models.TABLE_BODY, TableRecord.class);
+    }
+
+    @Benchmark
+    public TableRecord tableCompactGson() {
+        return compactGson.fromJson(Models.TABLE_BODY, TableRecord.class);
+    }
+
+    @Benchmark
+    public TableRecord tableCachedAdapter() throws IOException {
+        return tableAdapter.fromJson(Models.TABLE_BODY);
+    }
+
+    @Benchmark
+    public TableRecord tableHandWritten() throws IOException {
+        return Codecs.TABLE.fromJson(Models.TABLE_BODY);
+    }
+
+    @Benchmark
+    public EventRequest eventPrettyGson() {
+        return prettyGson.fromJson(Models.EVENT_BODY, EventRequest.class);
+    }
+
+    @Benchmark
+    public EventRequest eventCompactGson() {
+        return compactGson.fromJson(Models.EVENT_BODY, EventRequest.class);
+    }
+
+    @Benchmark
+    public EventRequest eventCachedAdapter() throws IOException {
+        return eventRequestAdapter.fromJson(Models.EVENT_BODY);
+    }
+
+    @Benchmark
+    public EventRequest eventHandWritten() throws IOException {
+        return Codecs.EVENT_REQUEST.fromJson(Models.EVENT_BODY);
+    }
+}
@@ -0,0 +1,143 @@
+package com.epam.benchmarks;
+
+import com.epam.benchmarks.Models.EventModel;
+import com.epam.benchmarks.Models.ResponseBody;
+import com.epam.benchmarks.Models.TableRecord;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building of response bodies: the single event response of task05, the error body every handler returns,
+ * and the tables list of task11 written through Gson or streamed row by row into a reused buffer
+ * the way {@code ListResponseWriter} does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class ResponseWritingBenchmark {
+    private final Gson prettyGson = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson compactGson = new Gson();
+    private final StringBuilder buffer = new StringBuilder(8 * 1024);
+
+    @Param({"10", "100"})
+    public int tables;
+
+    private TypeAdapter<ResponseBody> responseBodyAdapter;
+    private ResponseBody eventResponse;
+    private Map<String, String> errorResponse;
+    private List<TableRecord> tableRecords;
+
+    @Setup
+    public void setUp() {
+        responseBodyAdapter = compactGson.getAdapter(ResponseBody.class);
+        eventResponse = new ResponseBody(201, new EventModel(UUID.randomUUID().toString(), 10,
+                "2024-05-01T13:00:00.000Z", Map.of("name", "John", "surname", "Doe")));
+        errorResponse = Map.of("statusCode", "400", "message", "ERROR. Invalid reservation.");
+        tableRecords = new ArrayList<>(tables);
+        for (int i = 1; i <= tables; i++) {
+            tableRecords.add(new TableRecord(i, i, 2 + i % 8, i % 5 == 0, i % 3 == 0 ? 1000 : null));
+        }
+    }
+
+    @Benchmark
+    public String eventResponsePrettyGson() {
+        return prettyGson.toJson(eventResponse);
+    }
+
+    @Benchmark
+    public String eventResponseCompactGson() {
+        return compactGson.toJson(eventResponse);
+    }
+
+    @Benchmark
+    public String eventResponseCachedAdapter() {
+        return responseBodyAdapter.toJson(eventResponse);
+    }
+
+    @Benchmark
+    public String eventResponseHandWritten() {
+        return Codecs.RESPONSE_BODY.toJson(eventResponse);
+    }
+
+    @Benchmark
+    public String errorResponsePrettyGson() {
+        return prettyGson.toJson(errorResponse);
+    }
+
+    @Benchmark
+    public String errorResponseCompactGson() {
+        return compactGson.toJson(errorResponse);
+    }
+
+    @Benchmark
+    public String tablesListPrettyGson() {
+        return prettyGson.toJson(Map.of("tables", tableRecords));
+    }
+
+    @Benchmark
+    public String tablesListCompactGson() {
+        return compactGson.toJson(Map.of("tables", tableRecords));
+    }
+
+    @Benchmark
+    public String tablesListStreaming() throws IOException {
+        buffer.setLength(0);
+        JsonWriter writer = new JsonWriter(new StringBuilderWriter(buffer));
+        writer.beginObject().name("tables").beginArray();
+        for (TableRecord tableRecord : tableRecords) {
+            Codecs.TABLE.write(writer, tableRecord);
+        }
+        writer.endArray().endObject();
+        return buffer.toString();
+    }
+
+    private static final class StringBuilderWriter extends Writer {
+        private final StringBuilder buffer;
+
+        private StringBuilderWriter(StringBuilder buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            buffer.append(string, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.epam.local;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates HTTP exchanges into API Gateway events the way the REST API (payload 1.0) and the HTTP API
+ * (payload 2.0) proxy integrations do, and handler output back into HTTP responses.
+ */
+final class HttpEvents {
+    private static final Gson gson = new Gson();
+
+    private HttpEvents() {
+    }
+
+    static APIGatewayProxyRequestEvent toProxyEvent(HttpExchange exchange, byte[] body, String requestId,
+                                                    List<PathTemplate> routes) {
+        final String path = exchange.getRequestURI().getPath();
+        final String method = exchange.getRequestMethod();
+        final PathTemplate route = PathTemplate.find(routes, path);
+        final Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        Map<String, String> headers = new HashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> headers.put(name, values.get(values.size() - 1)));
+        Map<String, String> queryParameters = new HashMap<>();
+        query.forEach((name, values) -> queryParameters.put(name, values.get(values.size() - 1)));
+
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(method)
+                .withPath(path)
+                .withResource(route == null ? path : route.template())
+                .withPathParameters(route == null ? null : route.pathParameters(path))
+                .withHeaders(headers)
+                .withMultiValueHeaders(new HashMap<>(exchange.getRequestHeaders()))
+                .withQueryStringParameters(query.isEmpty() ? null : queryParameters)
+                .withMultiValueQueryStringParameters(query.isEmpty() ? null : query)
+                .withBody(encodeBody(exchange, body))
+                .withIsBase64Encoded(isBinary(exchange))
+                .withRequestContext(new APIGatewayProxyRequestEvent.ProxyRequestContext()
+                        .withRequestId(requestId)
+                        .withHttpMethod(method)
+                        .withPath(path)
+                        .withResourcePath(route == null ? path : route.template())
+                        .withStage("local")
+                        .withRequestTimeEpoch(System.currentTimeMillis())
+                        .withIdentity(new APIGatewayProxyRequestEvent.RequestIdentity()
+                                .withSourceIp(exchange.getRemoteAddress().getAddress().getHostAddress())
+                                .withUserAgent(exchange.getRequestHeaders().getFirst("User-Agent"))));
+    }
+
+    static APIGatewayV2HTTPEvent toV2Event(HttpExchange exchange, byte[] body, String requestId,
+                                           List<PathTemplate> routes) {
+        final String path = exchange.getRequestURI().getPath();
+        final String method = exchange.getRequestMethod();
+        final PathTemplate route = PathTemplate.find(routes, path);
+        final Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        // HTTP API lowercases header names, joins repeated values with commas and moves cookies out of the headers
+        Map<String, String> headers = new HashMap<>();
+        List<String> cookies = new ArrayList<>();
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if ("cookie".equalsIgnoreCase(name)) {
+                values.forEach(value -> cookies.addAll(List.of(value.split(";\\s*"))));
+            } else {
+                headers.put(name.toLowerCase(), String.join(",", values));
+            }
+        });
+        Map<String, String> queryParameters = new HashMap<>();
+        query.forEach((name, values) -> queryParameters.put(name, String.join(",", values)));
+
+        return APIGatewayV2HTTPEvent.builder()
+                .withVersion("2.0")
+                .withRouteKey("$default")
+                .withRawPath(path)
+                .withRawQueryString(exchange.getRequestURI().getRawQuery() == null ? "" : exchange.getRequestURI().getRawQuery())
+                .withCookies(cookies.isEmpty() ? null : cookies)
+                .withHeaders(headers)
+                .withQueryStringParameters(query.isEmpty() ? null : queryParameters)
+                .withPathParameters(route == null ? null : route.pathParameters(path))
+                .withBody(encodeBody(exchange, body))
+                .withIsBase64Encoded(isBinary(exchange))
+                .withRequestContext(APIGatewayV2HTTPEvent.RequestContext.builder()
+                        .withRouteKey("$default")
+                        .withStage("$default")
+                        .withRequestId(requestId)
+                        .withTimeEpoch(System.currentTimeMillis())
+                        .withDomainName(exchange.getRequestHeaders().getFirst("Host"))
+                        .withHttp(APIGatewayV2HTTPEvent.RequestContext.Http.builder()
+                                .withMethod(method)
+                                .withPath(path)
+                                .withProtocol(exchange.getProtocol())
+                                .withSourceIp(exchange.getRemoteAddress().getAddress().getHostAddress())
+                                .withUserAgent(exchange.getRequestHeaders().getFirst("User-Agent"))
+                                .build())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Reads a handler result like API Gateway does: an object with {@code statusCode} is a proxy response, anything
+     * else is returned as a 200 JSON body.
+     */
+    static Response toResponse(Object output) {
+        if (output == null) {
+            return new Response(200, Map.of(), new byte[0]);
+        }
+        if (output instanceof String body) {
+            return new Response(200, Map.of("Content-Type", List.of("application/json")), body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        JsonElement json = gson.toJsonTree(output);
+        if (!json.isJsonObject() || !json.getAsJsonObject().has("statusCode")) {
+            return new Response(200, Map.of("Content-Type", List.of("application/json")),
+                    gson.toJson(json).getBytes(StandardCharsets.UTF_8));
+        }
+
+        JsonObject response = json.getAsJsonObject();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (response.has("headers") && response.get("headers").isJsonObject()) {
+            response.getAsJsonObject("headers").entrySet().forEach(header ->
+                    headers.computeIfAbsent(header.getKey(), name -> new ArrayList<>()).add(header.getValue().getAsString()));
+        }
+        if (response.has("multiValueHeaders") && response.get("multiValueHeaders").isJsonObject()) {
+            response.getAsJsonObject("multiValueHeaders").entrySet().forEach(header ->
+                    header.getValue().getAsJsonArray().forEach(value ->
+                            headers.computeIfAbsent(header.getKey(), name -> new ArrayList<>()).add(value.getAsString())));
+        }
+        if (response.has("cookies") && response.get("cookies").isJsonArray()) {
+            response.getAsJsonArray("cookies").forEach(cookie ->
+                    headers.computeIfAbsent("Set-Cookie", name -> new ArrayList<>()).add(cookie.getAsString()));
+        }
+
+        String body = response.has("body") && !response.get("body").isJsonNull() ? response.get("body").getAsString() : "";
+        boolean base64 = response.has("isBase64Encoded") && response.get("isBase64Encoded").getAsBoolean();
+        return new Response(response.get("statusCode").getAsInt(), headers,
+                base64 ? Base64.getDecoder().decode(body) : body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+            String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            query.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+        return query;
+    }
+
+    private static String encodeBody(HttpExchange exchange, byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        return isBinary(exchange) ? Base64.getEncoder().encodeToString(body) : new String(body, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isBinary(HttpExchange exchange) {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        return !(type.startsWith("text/") || type.contains("json") || type.contains("xml")
+                || type.contains("x-www-form-urlencoded") || type.contains("javascript"));
+    }
+
+    record Response(int statusCode, Map<String, List<String>> headers, byte[] body) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.epam.local;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+/**
+ * Lambda {@link Context} of one local invocation.
+ */
+class LocalContext implements Context {
+    private static final int MEMORY_LIMIT_MB = (int) (Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+    private final String requestId;
+    private final String functionName;
+    private final long deadlineMillis;
+    private final LambdaLogger logger;
+
+    LocalContext(String requestId, String functionName, long timeoutMillis, LambdaLogger logger) {
+        this.requestId = requestId;
+        this.functionName = functionName;
+        this.deadlineMillis = System.currentTimeMillis() + timeoutMillis;
+        this.logger = logger;
+    }
+
+    @Override
+    public String getAwsRequestId() {
+        return requestId;
+    }
+
+    @Override
+    public String getLogGroupName() {
+        return "/aws/lambda/" + functionName;
+    }
+
+    @Override
+    public String getLogStreamName() {
+        return "local";
+    }
+
+    @Override
+    public String getFunctionName() {
+        return functionName;
+    }
+
+    @Override
+    public String getFunctionVersion() {
+        return "$LATEST";
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return "arn:aws:lambda:local:000000000000:function:" + functionName;
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        return (int) Math.max(0, deadlineMillis - System.currentTimeMillis());
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+        return MEMORY_LIMIT_MB;
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+        return logger;
+    }
+}
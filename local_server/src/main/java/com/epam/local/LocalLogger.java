@@ -0,0 +1,31 @@
+package com.epam.local;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes handler logs to stdout, prefixed with the request id, or drops them in quiet mode.
+ * Handlers log every event, and under load the shared stdout lock would dominate the measurement.
+ */
+class LocalLogger implements LambdaLogger {
+    private final String requestId;
+    private final boolean quiet;
+
+    LocalLogger(String requestId, boolean quiet) {
+        this.requestId = requestId;
+        this.quiet = quiet;
+    }
+
+    @Override
+    public void log(String message) {
+        if (!quiet) {
+            System.out.println(requestId + " " + message);
+        }
+    }
+
+    @Override
+    public void log(byte[] message) {
+        log(new String(message, StandardCharsets.UTF_8));
+    }
+}
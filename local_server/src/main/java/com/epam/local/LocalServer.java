@@ -0,0 +1,149 @@
+package com.epam.local;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves an API Gateway proxy {@link RequestHandler} on the JDK HTTP server, so that a handler can be called and
+ * load-tested without deploying it.
+ * <p>
+ * The handler's input type selects the event format: {@link APIGatewayProxyRequestEvent} (REST API) or
+ * {@link APIGatewayV2HTTPEvent} (HTTP API). Each worker thread gets its own handler instance, because Lambda never
+ * runs one instance concurrently; static state is shared across threads as it is across invocations of a container.
+ * <pre>
+ * java -cp local_server/target/local_server-1.0.jar:task11/target/task11-1.0.0.jar:task11/lib/* \
+ *     com.epam.local.LocalServer com.task11.ApiHandler --port 8080 --threads 200 --route /tables/{tableId} --quiet
+ * </pre>
+ */
+public class LocalServer {
+    private static final String USAGE = "Usage: LocalServer <handler-class> [--port 8080] [--threads 200] "
+            + "[--timeout-ms 29000] [--route /path/{param}]... [--quiet]";
+    private static final byte[] INTERNAL_ERROR = "{\"message\":\"Internal server error\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final Class<?> handlerClass;
+    private final boolean v2Events;
+    private final List<PathTemplate> routes;
+    private final long timeoutMillis;
+    private final boolean quiet;
+    private final ThreadLocal<RequestHandler<Object, Object>> handlers;
+
+    LocalServer(Class<?> handlerClass, List<PathTemplate> routes, long timeoutMillis, boolean quiet) {
+        this.handlerClass = handlerClass;
+        this.v2Events = inputType(handlerClass) == APIGatewayV2HTTPEvent.class;
+        this.routes = routes;
+        this.timeoutMillis = timeoutMillis;
+        this.quiet = quiet;
+        this.handlers = ThreadLocal.withInitial(this::newHandler);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        int port = 8080;
+        int threads = 200;
+        long timeoutMillis = 29_000;
+        boolean quiet = false;
+        List<PathTemplate> routes = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--timeout-ms" -> timeoutMillis = Long.parseLong(args[++i]);
+                case "--route" -> routes.add(PathTemplate.parse(args[++i]));
+                case "--quiet" -> quiet = true;
+                default -> {
+                    System.err.println("Unknown option " + args[i] + "\n" + USAGE);
+                    System.exit(1);
+                }
+            }
+        }
+
+        LocalServer localServer = new LocalServer(Class.forName(args[0]), routes, timeoutMillis, quiet);
+        // Java 17 has no virtual threads; a fixed pool bounds the number of in-flight invocations instead
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/", localServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        System.out.printf("Serving %s (%s events) on http://localhost:%d with %d threads%n",
+                args[0], localServer.v2Events ? "HTTP API" : "REST API", port, threads);
+    }
+
+    void handle(HttpExchange exchange) throws IOException {
+        try {
+            final String requestId = UUID.randomUUID().toString();
+            final byte[] body = exchange.getRequestBody().readAllBytes();
+            final Object event = v2Events
+                    ? HttpEvents.toV2Event(exchange, body, requestId, routes)
+                    : HttpEvents.toProxyEvent(exchange, body, requestId, routes);
+            final LambdaLogger logger = new LocalLogger(requestId, quiet);
+            final Context context = new LocalContext(requestId, handlerClass.getSimpleName(), timeoutMillis, logger);
+
+            HttpEvents.Response response;
+            try {
+                response = HttpEvents.toResponse(handlers.get().handleRequest(event, context));
+            } catch (RuntimeException e) {
+                // API Gateway answers 502 when the function itself fails
+                System.err.println(requestId + " ERROR: " + e);
+                e.printStackTrace();
+                response = new HttpEvents.Response(502, Map.of("Content-Type", List.of("application/json")), INTERNAL_ERROR);
+            }
+
+            exchange.getResponseHeaders().putAll(response.headers());
+            exchange.sendResponseHeaders(response.statusCode(), response.body().length == 0 ? -1 : response.body().length);
+            if (response.body().length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response.body());
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private RequestHandler<Object, Object> newHandler() {
+        try {
+            return (RequestHandler<Object, Object>) handlerClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + handlerClass.getName(), e);
+        }
+    }
+
+    private static Class<?> inputType(Class<?> handlerClass) {
+        if (!RequestHandler.class.isAssignableFrom(handlerClass)) {
+            throw new IllegalArgumentException(handlerClass.getName() + " is not a RequestHandler");
+        }
+        for (Method method : handlerClass.getMethods()) {
+            if (method.getName().equals("handleRequest") && !method.isBridge() && method.getParameterCount() == 2
+                    && method.getParameterTypes()[1] == Context.class) {
+                Class<?> inputType = method.getParameterTypes()[0];
+                if (inputType == APIGatewayProxyRequestEvent.class || inputType == APIGatewayV2HTTPEvent.class) {
+                    return inputType;
+                }
+            }
+        }
+        throw new IllegalArgumentException(handlerClass.getName()
+                + " does not take an APIGatewayProxyRequestEvent or an APIGatewayV2HTTPEvent");
+    }
+}
@@ -0,0 +1,60 @@
+package com.epam.local;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API Gateway resource path such as {@code /tables/{tableId}}; {@code {name}} segments become path parameters.
+ */
+record PathTemplate(String template, String[] segments) {
+
+    static PathTemplate parse(String template) {
+        return new PathTemplate(template, split(template));
+    }
+
+    /**
+     * @return the first template matching the path, or null
+     */
+    static PathTemplate find(List<PathTemplate> templates, String path) {
+        String[] pathSegments = split(path);
+        for (PathTemplate template : templates) {
+            if (template.matches(pathSegments)) {
+                return template;
+            }
+        }
+        return null;
+    }
+
+    Map<String, String> pathParameters(String path) {
+        String[] pathSegments = split(path);
+        Map<String, String> parameters = new HashMap<>();
+        for (int i = 0; i < segments.length; i++) {
+            if (isParameter(segments[i])) {
+                parameters.put(segments[i].substring(1, segments[i].length() - 1), pathSegments[i]);
+            }
+        }
+        return parameters;
+    }
+
+    private boolean matches(String[] pathSegments) {
+        if (pathSegments.length != segments.length) {
+            return false;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (!isParameter(segments[i]) && !segments[i].equals(pathSegments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    private static String[] split(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/", -1);
+    }
+}
@@ -44,14 +44,19 @@ public class HelloWorld implements RequestHandler<APIGatewayV2HTTPEvent, APIGate
 
 	private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
     private final Map<String, String> responseHeaders = Map.of("Content-Type", "application/json");
-    private final Map<RouteKey, Function<APIGatewayV2HTTPEvent, APIGatewayV2HTTPResponse>> routeHandlers = Map.of(
-            new RouteKey("GET", "/hello"), this::handleGetHello
+    private final Map<String, Map<String, Function<APIGatewayV2HTTPEvent, APIGatewayV2HTTPResponse>>> routeHandlers = Map.of(
+            "/hello", Map.of("GET", this::handleGetHello)
     );
 
 	@Override
     public APIGatewayV2HTTPResponse handleRequest(APIGatewayV2HTTPEvent requestEvent, Context context) {
-        RouteKey routeKey = new RouteKey(getMethod(requestEvent), getPath(requestEvent));
-        return routeHandlers.getOrDefault(routeKey, this::badResponse).apply(requestEvent);
+        final String path = getPath(requestEvent);
+        final String method = getMethod(requestEvent);
+        Map<String, Function<APIGatewayV2HTTPEvent, APIGatewayV2HTTPResponse>> methodHandlers =
+                path == null ? null : routeHandlers.get(path);
+        Function<APIGatewayV2HTTPEvent, APIGatewayV2HTTPResponse> handler =
+                methodHandlers == null || method == null ? null : methodHandlers.get(method);
+        return handler == null ? badResponse(requestEvent) : handler.apply(requestEvent);
     }
 
 	private APIGatewayV2HTTPResponse badResponse(APIGatewayV2HTTPEvent requestEvent) {
@@ -73,14 +78,19 @@ public class HelloWorld implements RequestHandler<APIGatewayV2HTTPEvent, APIGate
     }
 
     private String getMethod(APIGatewayV2HTTPEvent requestEvent) {
-        return requestEvent.getRequestContext().getHttp().getMethod();
+        APIGatewayV2HTTPEvent.RequestContext requestContext = requestEvent.getRequestContext();
+        if (requestContext == null || requestContext.getHttp() == null) {
+            return null;
+        }
+        return requestContext.getHttp().getMethod();
     }
 
     private String getPath(APIGatewayV2HTTPEvent requestEvent) {
-        return requestEvent.getRequestContext().getHttp().getPath();
-    }
-
-    private record RouteKey(String method, String path) {
+        APIGatewayV2HTTPEvent.RequestContext requestContext = requestEvent.getRequestContext();
+        if (requestContext == null || requestContext.getHttp() == null) {
+            return null;
+        }
+        return requestContext.getHttp().getPath();
     }
 
 	private record MessageBody(int statusCode, String message){
@@ -1,7 +1,6 @@
 package com.task05;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
@@ -9,13 +8,18 @@ import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.epam.aws.AwsClients;
+import com.epam.aws.BatchWriter;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
 import com.syndicate.deployment.annotations.lambda.LambdaHandler;
@@ -24,11 +28,17 @@ import com.syndicate.deployment.model.ArtifactExtension;
 import com.syndicate.deployment.model.DeploymentRuntime;
 import com.syndicate.deployment.model.RetentionSetting;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @LambdaHandler(lambdaName = "api_handler",
 		roleName = "api_handler-role",
@@ -44,18 +54,33 @@ import java.util.UUID;
         artifactExtension = ArtifactExtension.ZIP
 )
 @EnvironmentVariables(value = {
-		@EnvironmentVariable(key = "EventsTable", value = "${target_table}")
+		@EnvironmentVariable(key = "EventsTable", value = "${target_table}"),
+		@EnvironmentVariable(key = "write_mode", value = "${events_write_mode}"),
+		@EnvironmentVariable(key = "events_queue", value = "events_queue")
 })
-// Add alias to the syndicate_aliases.yml
+// Add aliases to the syndicate_aliases.yml
 // target_table: Events
+// events_write_mode: sync | sqs | memory
 public class ApiHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 	private LambdaLogger logger;
 
-	private static AmazonDynamoDB client = AmazonDynamoDBClientBuilder.standard().build();
+	private static AmazonDynamoDB client = AwsClients.dynamoDB();
 	private static DynamoDB dynamoDB = new DynamoDB(client);
+	private static BatchWriter batchWriter = new BatchWriter(client);
+	private static final EventQueue eventQueue = EventQueue.fromEnvironment(System.getenv("EventsTable"));
 
 	private String DYNAMODB_TABLE_NAME = "FROM_ENV";
 	private static final int SC_OK = 201;
+	private static final int SC_READ_OK = 200;
+	private static final int SC_ACCEPTED = 202;
+	private static final int SC_BAD_REQUEST = 400;
+	private static final String PRINCIPAL_CREATED_AT_INDEX = "principalId-createdAt-index";
+	private static final int DEFAULT_QUERY_LIMIT = 100;
+	private static final int MAX_QUERY_LIMIT = 1000;
+	private static final DateTimeFormatter CREATED_AT_FORMAT =
+			DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+	private static final String EVENTS_BATCH_PATH = "/events/batch";
+	private static final int MAX_EVENTS_BATCH_SIZE = 1000;
 	private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 	private final Map<String, String> responseHeaders = Map.of("Content-Type", "application/json");
 
@@ -68,33 +93,236 @@ public class ApiHandler implements RequestHandler<APIGatewayProxyRequestEvent, A
 		DYNAMODB_TABLE_NAME = System.getenv("EventsTable");
 		logger.log("Events table name: " + DYNAMODB_TABLE_NAME);
 
+		if ("GET".equals(request.getHttpMethod())) {
+			return handleQuery(request);
+		}
+		if (request.getPath() != null && request.getPath().endsWith(EVENTS_BATCH_PATH)) {
+			return handleBatch(request);
+		}
+
 		EventModel event = buildEventModelItem(request);
+		if (event == null) {
+			return buildResponse(SC_BAD_REQUEST, new ErrorBody(SC_BAD_REQUEST, "Event must have a principalId and content"));
+		}
+		if (eventQueue != null) {
+			// write-behind: the event is persisted by the queue consumer, table throttling no longer reaches the client
+			eventQueue.enqueue(event);
+			return buildResponse(SC_ACCEPTED, new ResponseBody(SC_ACCEPTED, event));
+		}
 		insertToDynamoDbV2(event);
 		return buildResponse(SC_OK, new ResponseBody(SC_OK, event));
 	}
 
+	/**
+	 * Returns the events of a principal created within [from, to], oldest first, from the
+	 * {@value #PRINCIPAL_CREATED_AT_INDEX} index. Query parameters: principalId (required), from and to
+	 * (optional ISO-8601 instants), limit (1 to {@value #MAX_QUERY_LIMIT}) and nextToken of the previous page.
+	 */
+	private APIGatewayProxyResponseEvent handleQuery(APIGatewayProxyRequestEvent requestEvent) {
+		logger.log(">> handleQuery");
+		final Map<String, String> parameters = requestEvent.getQueryStringParameters() == null
+				? Map.of()
+				: requestEvent.getQueryStringParameters();
+
+		final int principalId;
+		final int limit;
+		final String from;
+		final String to;
+		try {
+			principalId = Integer.parseInt(parameters.get("principalId"));
+			limit = parameters.containsKey("limit") ? Integer.parseInt(parameters.get("limit")) : DEFAULT_QUERY_LIMIT;
+			from = parameters.containsKey("from") ? formatCreatedAt(Instant.parse(parameters.get("from"))) : null;
+			to = parameters.containsKey("to") ? formatCreatedAt(Instant.parse(parameters.get("to"))) : null;
+		} catch (NumberFormatException | DateTimeParseException e) {
+			return buildResponse(SC_BAD_REQUEST, new ErrorBody(SC_BAD_REQUEST,
+					"principalId and limit must be integers, from and to ISO-8601 instants"));
+		}
+		if (limit < 1 || limit > MAX_QUERY_LIMIT) {
+			return buildResponse(SC_BAD_REQUEST,
+					new ErrorBody(SC_BAD_REQUEST, "limit must be 1 to %d".formatted(MAX_QUERY_LIMIT)));
+		}
+		// both are in the fixed createdAt format, so the string order is the time order
+		if (from != null && to != null && from.compareTo(to) > 0) {
+			return buildResponse(SC_BAD_REQUEST, new ErrorBody(SC_BAD_REQUEST, "from must not be after to"));
+		}
+
+		final Map<String, AttributeValue> values = new HashMap<>();
+		values.put(":principalId", new AttributeValue().withN(String.valueOf(principalId)));
+		String keyCondition = "principalId = :principalId";
+		if (from != null && to != null) {
+			keyCondition += " AND createdAt BETWEEN :from AND :to";
+			values.put(":from", new AttributeValue(from));
+			values.put(":to", new AttributeValue(to));
+		} else if (from != null) {
+			keyCondition += " AND createdAt >= :from";
+			values.put(":from", new AttributeValue(from));
+		} else if (to != null) {
+			keyCondition += " AND createdAt <= :to";
+			values.put(":to", new AttributeValue(to));
+		}
+
+		final QueryRequest queryRequest = new QueryRequest()
+				.withTableName(DYNAMODB_TABLE_NAME)
+				.withIndexName(PRINCIPAL_CREATED_AT_INDEX)
+				.withKeyConditionExpression(keyCondition)
+				.withExpressionAttributeValues(values)
+				.withLimit(limit);
+		final String nextToken = parameters.get("nextToken");
+		if (nextToken != null) {
+			final Map<String, AttributeValue> startKey = decodeNextToken(principalId, nextToken);
+			if (startKey == null) {
+				return buildResponse(SC_BAD_REQUEST, new ErrorBody(SC_BAD_REQUEST, "Invalid nextToken"));
+			}
+			queryRequest.withExclusiveStartKey(startKey);
+		}
+
+		final QueryResult result = client.query(queryRequest);
+		final List<EventModel> events = new ArrayList<>(result.getItems().size());
+		for (Map<String, AttributeValue> item : result.getItems()) {
+			events.add(EventModel.fromItem(item));
+		}
+		return buildResponse(SC_READ_OK,
+				new QueryResponseBody(SC_READ_OK, events, encodeNextToken(result.getLastEvaluatedKey())));
+	}
+
+	/**
+	 * The index position of a page end: its createdAt and id (principalId is a query parameter anyway).
+	 */
+	private static String encodeNextToken(Map<String, AttributeValue> lastEvaluatedKey) {
+		if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+			return null;
+		}
+		final String position = lastEvaluatedKey.get("createdAt").getS() + "\n" + lastEvaluatedKey.get("id").getS();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Map<String, AttributeValue> decodeNextToken(int principalId, String nextToken) {
+		try {
+			final String position = new String(Base64.getUrlDecoder().decode(nextToken), StandardCharsets.UTF_8);
+			final int separator = position.indexOf('\n');
+			if (separator < 0) {
+				return null;
+			}
+			return Map.of(
+					"principalId", new AttributeValue().withN(String.valueOf(principalId)),
+					"createdAt", new AttributeValue(position.substring(0, separator)),
+					"id", new AttributeValue(position.substring(separator + 1)));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Stores up to {@link #MAX_EVENTS_BATCH_SIZE} events sent as a JSON array or as NDJSON (one event per line).
+	 * Valid events are written with parallel 25-item BatchWriteItem calls; an event without principalId or content,
+	 * or a malformed NDJSON line, is not written and reported as INVALID. The response lists the generated id
+	 * and the outcome of every event in input order.
+	 */
+	private APIGatewayProxyResponseEvent handleBatch(APIGatewayProxyRequestEvent requestEvent) {
+		logger.log(">> handleBatch");
+		final List<EventRequest> requests;
+		try {
+			requests = parseBatch(requestEvent.getBody());
+		} catch (JsonParseException e) {
+			return buildResponse(SC_BAD_REQUEST, new ErrorBody(SC_BAD_REQUEST, "Malformed events batch: " + e.getMessage()));
+		}
+		if (requests.isEmpty() || requests.size() > MAX_EVENTS_BATCH_SIZE) {
+			return buildResponse(SC_BAD_REQUEST,
+					new ErrorBody(SC_BAD_REQUEST, "Events batch must contain 1 to %d events".formatted(MAX_EVENTS_BATCH_SIZE)));
+		}
+
+		final String createdAt = formatCreatedAt(Instant.now());
+		final BatchItemResult[] results = new BatchItemResult[requests.size()];
+		final List<Map<String, AttributeValue>> items = new ArrayList<>(requests.size());
+		final List<EventModel> events = new ArrayList<>(requests.size());
+		final List<Integer> positions = new ArrayList<>(requests.size());
+		for (int i = 0; i < requests.size(); i++) {
+			final EventRequest eventRequest = requests.get(i);
+			if (!isValid(eventRequest)) {
+				results[i] = new BatchItemResult(i, null, "INVALID", "Event must have a principalId and content");
+				continue;
+			}
+			final EventModel event = new EventModel(EventIds.next(), eventRequest.principalId, createdAt,
+					eventRequest.content);
+			items.add(event.toItem());
+			events.add(event);
+			positions.add(i);
+		}
+
+		if (!items.isEmpty()) {
+			final String[] errors = batchWriter.putAll(DYNAMODB_TABLE_NAME, items);
+			for (int i = 0; i < errors.length; i++) {
+				final int position = positions.get(i);
+				results[position] = errors[i] == null
+						? new BatchItemResult(position, events.get(i).id(), "CREATED", null)
+						: new BatchItemResult(position, events.get(i).id(), "FAILED", errors[i]);
+			}
+		}
+		logger.log("Batch of %d events: %d written".formatted(requests.size(),
+				Arrays.stream(results).filter(result -> "CREATED".equals(result.status)).count()));
+
+		return buildResponse(SC_OK, new BatchResponseBody(SC_OK, Arrays.asList(results)));
+	}
+
+	/**
+	 * A body starting with '[' is a JSON array; anything else is read as NDJSON. A malformed NDJSON line becomes
+	 * a null entry, so it is reported as an invalid item instead of failing the whole batch.
+	 */
+	private List<EventRequest> parseBatch(String body) {
+		final String trimmed = body == null ? "" : body.trim();
+		if (trimmed.startsWith("[")) {
+			final EventRequest[] requests = gson.fromJson(trimmed, EventRequest[].class);
+			return requests == null ? List.of() : Arrays.asList(requests);
+		}
+
+		final List<EventRequest> requests = new ArrayList<>();
+		for (String line : trimmed.split("\\r?\\n")) {
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				requests.add(gson.fromJson(line, EventRequest.class));
+			} catch (JsonParseException e) {
+				requests.add(null);
+			}
+		}
+		return requests;
+	}
+
 	private EventModel buildEventModelItem(APIGatewayProxyRequestEvent requestEvent){
 		EventRequest requestBody = gson.fromJson(requestEvent.getBody(), EventRequest.class);
 		logger.log("Parsed body: " + requestBody);
+		if (!isValid(requestBody)) {
+			return null;
+		}
 
-		String eventId = UUID.randomUUID().toString();
+		String eventId = EventIds.next();
 		int principalId = requestBody.principalId;
-		String createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS).toString();
+		String createdAt = formatCreatedAt(Instant.now());
 		Map<String, String> content = requestBody.content;
 		EventModel event = new EventModel(eventId, principalId, createdAt, content);
 
 		return event;
 	}
 
+	/**
+	 * principalId is boxed in the request, so that a missing one is rejected here instead of being stored as 0.
+	 */
+	private static boolean isValid(EventRequest eventRequest) {
+		return eventRequest != null && eventRequest.principalId != null && eventRequest.content != null;
+	}
+
+	/**
+	 * ISO-8601 in UTC with exactly three fraction digits. {@link Instant#toString()} drops a zero fraction,
+	 * which would break the string order the createdAt range queries rely on.
+	 */
+	private static String formatCreatedAt(Instant instant) {
+		return CREATED_AT_FORMAT.format(instant);
+	}
+
 	private void insertToDynamoDb(EventModel event){
 		logger.log(">> insertToDynamoDb");
-		Map<String, AttributeValue> item = new HashMap<>();
-		item.put("id", new AttributeValue(event.id));
-		item.put("principalId", new AttributeValue().withN(String.valueOf(event.principalId)));
-		item.put("createdAt", new AttributeValue(event.createdAt));
-		item.put("body", new AttributeValue().withM(buildBody(event.body())));
-
-		PutItemRequest putItemRequest = new PutItemRequest(DYNAMODB_TABLE_NAME, item);
+		PutItemRequest putItemRequest = new PutItemRequest(DYNAMODB_TABLE_NAME, event.toItem());
 		logger.log("PutItemRequest: " + putItemRequest);
 
 		PutItemResult putItemResult = client.putItem(putItemRequest);
@@ -107,9 +335,9 @@ public class ApiHandler implements RequestHandler<APIGatewayProxyRequestEvent, A
 		Table table = dynamoDB.getTable(DYNAMODB_TABLE_NAME);
 		try {
 			Item item = new Item()
-					.withPrimaryKey("id", event.id)
-					.withNumber("principalId", event.principalId)
-					.withString("createdAt", event.createdAt)
+					.withPrimaryKey("id", event.id())
+					.withNumber("principalId", event.principalId())
+					.withString("createdAt", event.createdAt())
 					.withMap("body", event.body());
 
 			logger.log("Item: " + item);
@@ -122,17 +350,6 @@ public class ApiHandler implements RequestHandler<APIGatewayProxyRequestEvent, A
 		}
 	}
 
-	private Map<String, AttributeValue> buildBody(Map<String, String> content){
-		logger.log(">> buildBody. Content: " + content);
-		Map<String, AttributeValue> body = new HashMap<>();
-
-		for (Map.Entry<String, String> entry: content.entrySet()) {
-			body.put(entry.getKey(), new AttributeValue(entry.getValue()));
-		}
-
-		return body;
-	}
-
 	private APIGatewayProxyResponseEvent buildResponse(int statusCode, Object body) {
 		APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
 		response.setStatusCode(statusCode);
@@ -141,12 +358,21 @@ public class ApiHandler implements RequestHandler<APIGatewayProxyRequestEvent, A
 	}
 
 	////// DATA MODEL
-	private record EventRequest(int principalId, Map<String, String> content) {
+	private record EventRequest(Integer principalId, Map<String, String> content) {
+	}
+
+	private record ResponseBody(int statusCode, EventModel event) {
 	}
 
-	private record EventModel(String id, int principalId, String createdAt, Map<String, String> body) {
+	private record BatchResponseBody(int statusCode, List<BatchItemResult> results) {
 	}
 
-	private record ResponseBody(int statusCode, EventModel event) {
+	private record BatchItemResult(int index, String id, String status, String message) {
+	}
+
+	private record QueryResponseBody(int statusCode, List<EventModel> events, String nextToken) {
+	}
+
+	private record ErrorBody(int statusCode, String message) {
 	}
 }
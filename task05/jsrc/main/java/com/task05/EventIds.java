@@ -0,0 +1,35 @@
+package com.task05;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered event ids in the UUIDv7 layout (RFC 9562): 48 bits of Unix milliseconds, then a 12-bit counter
+ * in {@code rand_a} and 62 random bits in {@code rand_b}.
+ * <p>
+ * The counter makes ids of one container strictly increasing, also within a millisecond and when the clock steps
+ * back; if it overflows, the timestamp is advanced by one millisecond. Random bits come from
+ * {@link ThreadLocalRandom}: ids must be unique and sortable, not unguessable, so SecureRandom is not needed.
+ */
+public final class EventIds {
+	private static final int COUNTER_BITS = 12;
+	private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+	// Unix millis << 12 | counter of the last id
+	private static final AtomicLong last = new AtomicLong();
+
+	private EventIds() {
+	}
+
+	public static String next() {
+		final long now = System.currentTimeMillis() << COUNTER_BITS;
+		final long state = last.updateAndGet(previous -> Math.max(now, previous + 1));
+
+		final long millis = state >>> COUNTER_BITS;
+		final long counter = state & COUNTER_MASK;
+		final long mostSignificant = (millis << 16) | (0x7L << 12) | counter;
+		final long leastSignificant = (ThreadLocalRandom.current().nextLong() >>> 2) | 0x8000000000000000L;
+		return new UUID(mostSignificant, leastSignificant).toString();
+	}
+}
@@ -0,0 +1,42 @@
+package com.task05;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An event as stored in the Events table, returned by the API and carried by the events queue.
+ */
+record EventModel(String id, int principalId, String createdAt, Map<String, String> body) {
+
+	Map<String, AttributeValue> toItem() {
+		Map<String, AttributeValue> item = new HashMap<>();
+		item.put("id", new AttributeValue(id));
+		item.put("principalId", new AttributeValue().withN(String.valueOf(principalId)));
+		item.put("createdAt", new AttributeValue(createdAt));
+		item.put("body", new AttributeValue().withM(buildBody(body)));
+		return item;
+	}
+
+	static EventModel fromItem(Map<String, AttributeValue> item) {
+		Map<String, String> body = new HashMap<>();
+		if (item.containsKey("body")) {
+			for (Map.Entry<String, AttributeValue> entry : item.get("body").getM().entrySet()) {
+				body.put(entry.getKey(), entry.getValue().getS());
+			}
+		}
+		return new EventModel(item.get("id").getS(), Integer.parseInt(item.get("principalId").getN()),
+				item.get("createdAt").getS(), body);
+	}
+
+	private static Map<String, AttributeValue> buildBody(Map<String, String> content) {
+		Map<String, AttributeValue> body = new HashMap<>();
+
+		for (Map.Entry<String, String> entry: content.entrySet()) {
+			body.put(entry.getKey(), new AttributeValue(entry.getValue()));
+		}
+
+		return body;
+	}
+}
@@ -0,0 +1,30 @@
+package com.task05;
+
+import com.epam.aws.AwsClients;
+
+/**
+ * Write-behind target of the events API: the handler enqueues a validated event with its id and acknowledges
+ * with 202, and the event is persisted later in batches.
+ * <p>
+ * Selected by the {@code write_mode} environment variable: {@code sqs} sends to the {@code events_queue} queue
+ * drained by {@link EventsQueueHandler}; {@code memory} keeps a queue inside the container, a non-durable stand-in
+ * for local runs; anything else (the default {@code sync}) means no queue, events are written before the response.
+ */
+interface EventQueue {
+
+	void enqueue(EventModel event);
+
+	/**
+	 * @return the queue of the configured write mode, or null when events are written synchronously
+	 */
+	static EventQueue fromEnvironment(String tableName) {
+		String writeMode = System.getenv("write_mode");
+		if ("sqs".equalsIgnoreCase(writeMode)) {
+			return new SqsEventQueue(AwsClients.sqs(), System.getenv("events_queue"));
+		}
+		if ("memory".equalsIgnoreCase(writeMode)) {
+			return new InMemoryEventQueue(AwsClients.dynamoDB(), tableName);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,92 @@
+package com.task05;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.epam.aws.AwsClients;
+import com.epam.aws.BatchWriter;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
+import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
+import com.syndicate.deployment.annotations.events.SqsTriggerEventSource;
+import com.syndicate.deployment.annotations.lambda.LambdaHandler;
+import com.syndicate.deployment.annotations.resources.DependsOn;
+import com.syndicate.deployment.model.DeploymentRuntime;
+import com.syndicate.deployment.model.ResourceType;
+import com.syndicate.deployment.model.RetentionSetting;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists the events the API enqueued in write-behind mode, one BatchWriteItem round per SQS batch.
+ * <p>
+ * If any event of the batch cannot be written, the invocation fails and SQS redelivers the whole batch.
+ * Puts are keyed by the id assigned in the API, so writing an event twice leaves the same item.
+ */
+@LambdaHandler(lambdaName = "events_queue_handler",
+		roleName = "events_queue_handler-role",
+		isPublishVersion = false,
+		runtime = DeploymentRuntime.JAVA17,
+		layers = {"sdk-layer"},
+		timeout = 60,
+		logsExpiration = RetentionSetting.SYNDICATE_ALIASES_SPECIFIED
+)
+@SqsTriggerEventSource(targetQueue = "events_queue", batchSize = 10)
+@DependsOn(name = "events_queue", resourceType = ResourceType.SQS_QUEUE)
+@EnvironmentVariables(value = {
+		@EnvironmentVariable(key = "EventsTable", value = "${target_table}")
+})
+public class EventsQueueHandler implements RequestHandler<SQSEvent, Void> {
+	private static final Gson gson = new Gson();
+	private static final BatchWriter batchWriter = new BatchWriter(AwsClients.dynamoDB());
+
+	@Override
+	public Void handleRequest(SQSEvent sqsEvent, Context context) {
+		final LambdaLogger logger = context.getLogger();
+		final String tableName = System.getenv("EventsTable");
+
+		// SQS delivers at least once, and BatchWriteItem rejects two puts of one key in a request
+		final Map<String, EventModel> events = new LinkedHashMap<>();
+		for (SQSEvent.SQSMessage message : sqsEvent.getRecords()) {
+			try {
+				EventModel event = gson.fromJson(message.getBody(), EventModel.class);
+				if (event == null || event.id() == null || event.body() == null) {
+					throw new JsonParseException("Missing id or body");
+				}
+				events.put(event.id(), event);
+			} catch (JsonParseException e) {
+				// redelivery cannot fix a malformed message, so it is dropped
+				logger.log("Dropping message %s: %s".formatted(message.getMessageId(), e.getMessage()));
+			}
+		}
+		if (events.isEmpty()) {
+			return null;
+		}
+
+		final List<EventModel> batch = new ArrayList<>(events.values());
+		final List<Map<String, AttributeValue>> items = new ArrayList<>(batch.size());
+		for (EventModel event : batch) {
+			items.add(event.toItem());
+		}
+		final String[] errors = batchWriter.putAll(tableName, items);
+
+		int failed = 0;
+		for (int i = 0; i < errors.length; i++) {
+			if (errors[i] != null) {
+				failed++;
+				logger.log("Write of event %s failed: %s".formatted(batch.get(i).id(), errors[i]));
+			}
+		}
+		if (failed > 0) {
+			throw new RuntimeException("%d of %d events not written, batch will be redelivered".formatted(failed, batch.size()));
+		}
+		logger.log("Wrote %d events".formatted(batch.size()));
+		return null;
+	}
+}
@@ -0,0 +1,75 @@
+package com.task05;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.epam.aws.BatchWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Queue inside the container, drained by a daemon thread that writes up to {@link #MAX_DRAIN} events per
+ * BatchWriteItem round. Nothing survives the container, and a frozen Lambda container does not drain,
+ * so this is only meant for local runs without SQS; deployments use {@link SqsEventQueue}.
+ */
+class InMemoryEventQueue implements EventQueue {
+	private static final int CAPACITY = 10_000;
+	private static final int MAX_DRAIN = 4 * BatchWriter.MAX_BATCH_SIZE;
+
+	private final BlockingQueue<EventModel> queue = new LinkedBlockingQueue<>(CAPACITY);
+	private final BatchWriter batchWriter;
+	private final String tableName;
+
+	InMemoryEventQueue(AmazonDynamoDB client, String tableName) {
+		this.batchWriter = new BatchWriter(client);
+		this.tableName = tableName;
+
+		Thread drainer = new Thread(this::drain, "events-drainer");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	@Override
+	public void enqueue(EventModel event) {
+		if (!queue.offer(event)) {
+			throw new IllegalStateException("Events queue is full");
+		}
+	}
+
+	private void drain() {
+		List<EventModel> events = new ArrayList<>(MAX_DRAIN);
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				events.add(queue.take());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			queue.drainTo(events, MAX_DRAIN - 1);
+
+			try {
+				write(events);
+			} catch (RuntimeException e) {
+				// keep draining; the events of this round are lost, as they would be with the container
+				System.err.println("Write of %d events failed: %s".formatted(events.size(), e.getMessage()));
+			}
+			events.clear();
+		}
+	}
+
+	private void write(List<EventModel> events) {
+		List<Map<String, AttributeValue>> items = new ArrayList<>(events.size());
+		for (EventModel event : events) {
+			items.add(event.toItem());
+		}
+		String[] errors = batchWriter.putAll(tableName, items);
+		for (int i = 0; i < errors.length; i++) {
+			if (errors[i] != null) {
+				System.err.println("Write of event %s failed: %s".formatted(events.get(i).id(), errors[i]));
+			}
+		}
+	}
+}
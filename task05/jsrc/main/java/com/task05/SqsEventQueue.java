@@ -0,0 +1,35 @@
+package com.task05;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.google.gson.Gson;
+
+/**
+ * Sends each event as a JSON message to an SQS queue. The queue URL is looked up by name once per container.
+ */
+class SqsEventQueue implements EventQueue {
+	private static final Gson gson = new Gson();
+
+	private final AmazonSQS sqs;
+	private final String queueName;
+	private volatile String queueUrl;
+
+	SqsEventQueue(AmazonSQS sqs, String queueName) {
+		this.sqs = sqs;
+		this.queueName = queueName;
+	}
+
+	@Override
+	public void enqueue(EventModel event) {
+		sqs.sendMessage(new SendMessageRequest(getQueueUrl(), gson.toJson(event)));
+	}
+
+	private String getQueueUrl() {
+		String url = queueUrl;
+		if (url == null) {
+			url = sqs.getQueueUrl(queueName).getQueueUrl();
+			queueUrl = url;
+		}
+		return url;
+	}
+}
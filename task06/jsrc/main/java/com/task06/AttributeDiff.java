@@ -0,0 +1,133 @@
+package com.task06;
+
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Attribute-level difference of two stream images of any schema.
+ * <p>
+ * Values are compared by meaning, not by representation: numbers numerically ({@code 1} equals {@code 1.0}),
+ * string, number and binary sets regardless of order. When both sides of an attribute are maps, the diff descends
+ * into them and reports changed entries by dotted path ({@code limits.daily}); lists are compared and reported
+ * as a whole, because positional paths shift on every insert.
+ */
+final class AttributeDiff {
+
+	private AttributeDiff() {
+	}
+
+	/**
+	 * @param ignored top-level attributes left out of the comparison, e.g. the table key
+	 * @return the changes in attribute name order, empty if the images are equal
+	 */
+	static List<Change> diff(Map<String, AttributeValue> oldImage, Map<String, AttributeValue> newImage,
+							 Set<String> ignored) {
+		List<Change> changes = new ArrayList<>();
+		diff("", nullToEmpty(oldImage), nullToEmpty(newImage), ignored, changes);
+		return changes;
+	}
+
+	private static void diff(String prefix, Map<String, AttributeValue> oldMap, Map<String, AttributeValue> newMap,
+							 Set<String> ignored, List<Change> changes) {
+		Set<String> names = new TreeSet<>(oldMap.keySet());
+		names.addAll(newMap.keySet());
+		for (String name : names) {
+			if (ignored.contains(name)) {
+				continue;
+			}
+			AttributeValue oldValue = oldMap.get(name);
+			AttributeValue newValue = newMap.get(name);
+			String path = prefix + name;
+			if (oldValue != null && newValue != null && oldValue.getM() != null && newValue.getM() != null) {
+				diff(path + ".", oldValue.getM(), newValue.getM(), Set.of(), changes);
+			} else if (!isEqual(oldValue, newValue)) {
+				changes.add(new Change(path, oldValue, newValue));
+			}
+		}
+	}
+
+	private static boolean isEqual(AttributeValue a, AttributeValue b) {
+		if (a == null || b == null) {
+			return a == b;
+		}
+		if (a.getS() != null || b.getS() != null) {
+			return a.getS() != null && a.getS().equals(b.getS());
+		}
+		if (a.getN() != null || b.getN() != null) {
+			return a.getN() != null && b.getN() != null && new BigDecimal(a.getN()).compareTo(new BigDecimal(b.getN())) == 0;
+		}
+		if (a.getB() != null || b.getB() != null) {
+			return a.getB() != null && a.getB().equals(b.getB());
+		}
+		if (a.getBOOL() != null || b.getBOOL() != null) {
+			return a.getBOOL() != null && a.getBOOL().equals(b.getBOOL());
+		}
+		if (a.getSS() != null || b.getSS() != null) {
+			return a.getSS() != null && b.getSS() != null && new HashSet<>(a.getSS()).equals(new HashSet<>(b.getSS()));
+		}
+		if (a.getNS() != null || b.getNS() != null) {
+			return a.getNS() != null && b.getNS() != null && numberSet(a.getNS()).equals(numberSet(b.getNS()));
+		}
+		if (a.getBS() != null || b.getBS() != null) {
+			return a.getBS() != null && b.getBS() != null && new HashSet<>(a.getBS()).equals(new HashSet<>(b.getBS()));
+		}
+		if (a.getL() != null || b.getL() != null) {
+			return a.getL() != null && b.getL() != null && isEqual(a.getL(), b.getL());
+		}
+		if (a.getM() != null || b.getM() != null) {
+			return a.getM() != null && b.getM() != null && isEqual(a.getM(), b.getM());
+		}
+		// both NULL
+		return Boolean.TRUE.equals(a.getNULL()) == Boolean.TRUE.equals(b.getNULL());
+	}
+
+	private static boolean isEqual(List<AttributeValue> a, List<AttributeValue> b) {
+		if (a.size() != b.size()) {
+			return false;
+		}
+		for (int i = 0; i < a.size(); i++) {
+			if (!isEqual(a.get(i), b.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isEqual(Map<String, AttributeValue> a, Map<String, AttributeValue> b) {
+		if (!a.keySet().equals(b.keySet())) {
+			return false;
+		}
+		for (Map.Entry<String, AttributeValue> entry : a.entrySet()) {
+			if (!isEqual(entry.getValue(), b.get(entry.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Set<BigDecimal> numberSet(List<String> numbers) {
+		Set<BigDecimal> set = new HashSet<>();
+		for (String number : numbers) {
+			// stripTrailingZeros makes 1.0 and 1 the same set element
+			set.add(new BigDecimal(number).stripTrailingZeros());
+		}
+		return set;
+	}
+
+	private static Map<String, AttributeValue> nullToEmpty(Map<String, AttributeValue> image) {
+		return image == null ? Map.of() : image;
+	}
+
+	/**
+	 * A changed attribute; {@code oldValue} is null for an added attribute, {@code newValue} for a removed one.
+	 */
+	record Change(String path, AttributeValue oldValue, AttributeValue newValue) {
+	}
+}
@@ -1,16 +1,18 @@
 package com.task06;
 
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.retry.RetryUtils;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
-import com.amazonaws.services.dynamodbv2.document.Item;
-import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
-import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
-import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import com.epam.aws.AwsClients;
+import com.epam.aws.BatchWriter;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
 import com.syndicate.deployment.annotations.events.DynamoDbTriggerEventSource;
@@ -20,12 +22,32 @@ import com.syndicate.deployment.model.DeploymentRuntime;
 import com.syndicate.deployment.model.ResourceType;
 import com.syndicate.deployment.model.RetentionSetting;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Writes an Audit item for every insert and for every changed attribute of an update of the Configuration table.
+ * <p>
+ * The audit items of a whole stream batch are written together with parallel BatchWriteItem calls. Items that were
+ * not written are put again one by one, so one bad item cannot fail the rest of its chunk. An item that DynamoDB
+ * rejects as invalid is logged and dropped: a redelivery would fail the same way and, since the event source has
+ * no bisect or retry limit, would block the shard. Any other failure fails the invocation and Lambda redelivers
+ * the whole batch, which is kept small; the items that were written are then rewritten unchanged (see below).
+ * Records that lack the key or the images an audit item is built from are logged and skipped, since a redelivery
+ * would carry them the same way.
+ * <p>
+ * Audit ids are derived from the stream record, so redelivered records rewrite the same items. BatchWriteItem
+ * cannot carry a put condition; an identical overwrite is used instead of a conditional put, which keeps the
+ * batching and still leaves exactly one audit item per change.
+ */
 @LambdaHandler(lambdaName = "audit_producer",
 		roleName = "audit_producer-role",
 		isPublishVersion = false,
@@ -34,7 +56,7 @@ import java.util.UUID;
 )
 @DependsOn(name = "Configuration", resourceType = ResourceType.DYNAMODB_TABLE)
 @DependsOn(name = "Audit", resourceType = ResourceType.DYNAMODB_TABLE)
-@DynamoDbTriggerEventSource(targetTable = "Configuration", batchSize = 1)
+@DynamoDbTriggerEventSource(targetTable = "Configuration", batchSize = 25)
 @EnvironmentVariables(
 		value = {
 				@EnvironmentVariable(key = "target_table", value = "${target_table}")
@@ -42,83 +64,194 @@ import java.util.UUID;
 )
 public class AuditProducer implements RequestHandler<DynamodbEvent, Void> {
 	private LambdaLogger logger;
-	private static AmazonDynamoDB client = AmazonDynamoDBClientBuilder.standard().build();
-	private static DynamoDB dynamoDB = new DynamoDB(client);
+	private static AmazonDynamoDB client = AwsClients.dynamoDB();
+	private static BatchWriter batchWriter = new BatchWriter(client);
+	// fixed fraction digits, so that stream times, which only have seconds, keep the stored shape
+	private static final DateTimeFormatter MODIFICATION_TIME_FORMAT =
+			DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
 	private String DYNAMODB_TABLE_NAME = "FROM_ENV";
 
 	public Void handleRequest(DynamodbEvent dynamodbEvent, Context context) {
 		logger = context.getLogger();
-		logger.log("dynamodbEvent: " + dynamodbEvent.toString());
+		final List<DynamodbEvent.DynamodbStreamRecord> records = dynamodbEvent.getRecords();
+		logger.log("Configuration changes: " + records.size());
 		DYNAMODB_TABLE_NAME = System.getenv("target_table");
 
-		dynamodbEvent.getRecords().stream().forEachOrdered(record -> {
-			switch (record.getEventName()) {
-				case "INSERT":
-					auditInsert(record);
-					break;
-				case "MODIFY":
-					auditModify(record);
-					break;
-				default:
-					logger.log("ERROR: Unknown event: " + record.getEventName());
+		final List<Map<String, AttributeValue>> items = new ArrayList<>(records.size());
+		final List<DynamodbEvent.DynamodbStreamRecord> auditedRecords = new ArrayList<>(records.size());
+		for (DynamodbEvent.DynamodbStreamRecord record : records) {
+			for (Map<String, AttributeValue> item : buildAuditItems(record)) {
+				items.add(item);
+				auditedRecords.add(record);
 			}
-		});
+		}
+		if (items.isEmpty()) {
+			return null;
+		}
 
+		final String[] errors = batchWriter.putAll(DYNAMODB_TABLE_NAME, items);
+		int failed = 0;
+		for (int i = 0; i < errors.length; i++) {
+			if (errors[i] != null) {
+				final String sequenceNumber = auditedRecords.get(i).getDynamodb().getSequenceNumber();
+				logger.log("Batched audit of record %s failed, putting it alone: %s".formatted(sequenceNumber, errors[i]));
+				if (!putSingle(items.get(i), sequenceNumber)) {
+					failed++;
+				}
+			}
+		}
+		if (failed > 0) {
+			throw new RuntimeException("%d of %d audit items not written, batch will be redelivered".formatted(failed, items.size()));
+		}
+		logger.log("Audit items written: " + items.size());
 		return null;
 	}
 
-	private void auditInsert(DynamodbEvent.DynamodbStreamRecord record) {
-		logger.log(">> auditInsert");
-		Map<String, AttributeValue> newImage = record.getDynamodb().getNewImage();
+	/**
+	 * @return false if the item was not written and a redelivery may succeed
+	 */
+	private boolean putSingle(Map<String, AttributeValue> item, String sequenceNumber) {
+		try {
+			client.putItem(new PutItemRequest(DYNAMODB_TABLE_NAME, item));
+			return true;
+		} catch (AmazonServiceException e) {
+			if (e.getStatusCode() == 400 && !RetryUtils.isThrottlingException(e)) {
+				logger.log("ERROR: Dropping audit of record %s, DynamoDB rejects it: %s".formatted(sequenceNumber, e.getMessage()));
+				return true;
+			}
+			logger.log("ERROR: Audit of record %s failed: %s".formatted(sequenceNumber, e.getMessage()));
+			return false;
+		} catch (SdkClientException e) {
+			logger.log("ERROR: Audit of record %s failed: %s".formatted(sequenceNumber, e.getMessage()));
+			return false;
+		}
+	}
 
-		final Map<String, Object> newValue = new HashMap<>();
-		newValue.put("key", newImage.get("key").getS());
-		newValue.put("value", Integer.valueOf(newImage.get("value").getN()));
-		final String id = UUID.randomUUID().toString();
-		final String modificationTime = Instant.now().truncatedTo(ChronoUnit.MILLIS).toString();
+	private List<Map<String, AttributeValue>> buildAuditItems(DynamodbEvent.DynamodbStreamRecord record) {
+		final StreamRecord stream = record.getDynamodb();
+		if (stream == null || stream.getKeys() == null || stream.getKeys().get("key") == null) {
+			logger.log("ERROR: Skipping record %s without key".formatted(record.getEventID()));
+			return List.of();
+		}
+		switch (record.getEventName()) {
+			case "INSERT":
+				if (stream.getNewImage() == null) {
+					logger.log("ERROR: Skipping insert %s without new image".formatted(stream.getSequenceNumber()));
+					return List.of();
+				}
+				return List.of(auditInsert(record));
+			case "MODIFY":
+				if (stream.getOldImage() == null || stream.getNewImage() == null) {
+					logger.log("ERROR: Skipping update %s without old and new image".formatted(stream.getSequenceNumber()));
+					return List.of();
+				}
+				return auditModify(record);
+			default:
+				logger.log("ERROR: Unknown event: " + record.getEventName());
+				return List.of();
+		}
+	}
 
-		Table table = dynamoDB.getTable(DYNAMODB_TABLE_NAME);
-		try {
-			Item item = new Item()
-					.withPrimaryKey("id", id)
-					.withString("itemKey", newImage.get("key").getS())
-					.withString("modificationTime", modificationTime)
-					.withMap("newValue", newValue);
-			logger.log("Item: " + item);
-			table.putItem(item);
-		} catch (Exception e) {
-			System.err.println("Create items failed.");
-			System.err.println(e.getMessage());
+	/**
+	 * The audit item of an insert carries every attribute of the new item except its keys as newValue.
+	 */
+	private Map<String, AttributeValue> auditInsert(DynamodbEvent.DynamodbStreamRecord record) {
+		final Map<String, com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue> keys =
+				record.getDynamodb().getKeys();
+		final Map<String, AttributeValue> newValue = new HashMap<>();
+		record.getDynamodb().getNewImage().forEach((name, value) -> {
+			if (!keys.containsKey(name)) {
+				newValue.put(name, toModel(value));
+			}
+		});
+
+		final Map<String, AttributeValue> item = new HashMap<>();
+		item.put("id", new AttributeValue(auditId(record, null)));
+		item.put("itemKey", new AttributeValue(keys.get("key").getS()));
+		item.put("modificationTime", new AttributeValue(modificationTime(record)));
+		item.put("newValue", new AttributeValue().withM(newValue));
+		return item;
+	}
 
+	/**
+	 * One audit item per changed attribute, none for an update that changed nothing.
+	 * An added attribute has no oldValue, a removed one no newValue.
+	 */
+	private List<Map<String, AttributeValue>> auditModify(DynamodbEvent.DynamodbStreamRecord record) {
+		final Map<String, com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue> keys =
+				record.getDynamodb().getKeys();
+		final List<AttributeDiff.Change> changes = AttributeDiff.diff(
+				record.getDynamodb().getOldImage(), record.getDynamodb().getNewImage(), keys.keySet());
+		if (changes.isEmpty()) {
+			logger.log("No changes in record " + record.getDynamodb().getSequenceNumber());
+			return List.of();
 		}
+
+		final String itemKey = keys.get("key").getS();
+		final String modificationTime = modificationTime(record);
+		final List<Map<String, AttributeValue>> items = new ArrayList<>(changes.size());
+		for (AttributeDiff.Change change : changes) {
+			final Map<String, AttributeValue> item = new HashMap<>();
+			item.put("id", new AttributeValue(auditId(record, change.path())));
+			item.put("itemKey", new AttributeValue(itemKey));
+			item.put("modificationTime", new AttributeValue(modificationTime));
+			item.put("updatedAttribute", new AttributeValue(change.path()));
+			if (change.oldValue() != null) {
+				item.put("oldValue", toModel(change.oldValue()));
+			}
+			if (change.newValue() != null) {
+				item.put("newValue", toModel(change.newValue()));
+			}
+			items.add(item);
+		}
+		return items;
 	}
 
-	private void auditModify(DynamodbEvent.DynamodbStreamRecord record) {
-		logger.log(">> auditModify");
-		Map<String, AttributeValue> oldImage = record.getDynamodb().getOldImage();
-		Map<String, AttributeValue> newImage = record.getDynamodb().getNewImage();
+	/**
+	 * The same change always gets the same audit id, so a redelivered stream batch overwrites its audit items
+	 * instead of adding duplicates.
+	 *
+	 * @param attribute the changed attribute path, null for the single audit item of an insert
+	 */
+	private static String auditId(DynamodbEvent.DynamodbStreamRecord record, String attribute) {
+		final String name = record.getEventID() + "/" + record.getDynamodb().getSequenceNumber()
+				+ (attribute == null ? "" : "/" + attribute);
+		return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+	}
 
-		final String id = UUID.randomUUID().toString();
-		final String modificationTime = Instant.now().truncatedTo(ChronoUnit.MILLIS).toString();
+	/**
+	 * Time of the change as recorded by the stream rather than time of processing, so a rewritten audit item
+	 * is identical to the first one.
+	 */
+	private static String modificationTime(DynamodbEvent.DynamodbStreamRecord record) {
+		final Date createdAt = record.getDynamodb().getApproximateCreationDateTime();
+		final Instant time = createdAt == null ? Instant.now() : createdAt.toInstant();
+		return MODIFICATION_TIME_FORMAT.format(time);
+	}
 
-		Table table = dynamoDB.getTable(DYNAMODB_TABLE_NAME);
-		try {
-			Item item = new Item()
-					.withPrimaryKey("id", id)
-					.withString("itemKey", newImage.get("key").getS())
-					.withString("modificationTime", modificationTime)
-					.withString("updatedAttribute", "value")
-					.withInt("oldValue", Integer.valueOf(oldImage.get("value").getN()))
-					.withInt("newValue", Integer.valueOf(newImage.get("value").getN()));
-
-			logger.log("Item: " + item);
-			PutItemOutcome result = table.putItem(item);
-			logger.log("PutItemOutcome: " + result);
-		} catch (Exception e) {
-			System.err.println("Create items failed.");
-			System.err.println(e.getMessage());
+	/**
+	 * Converts a stream image value to the SDK type used for writing.
+	 */
+	private static AttributeValue toModel(com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue value) {
+		final AttributeValue result = new AttributeValue();
+		if (value.getM() != null) {
+			final Map<String, AttributeValue> map = new HashMap<>();
+			value.getM().forEach((name, entry) -> map.put(name, toModel(entry)));
+			return result.withM(map);
+		}
+		if (value.getL() != null) {
+			final List<AttributeValue> list = new ArrayList<>(value.getL().size());
+			value.getL().forEach(entry -> list.add(toModel(entry)));
+			return result.withL(list);
 		}
+		return result.withS(value.getS())
+				.withN(value.getN())
+				.withB(value.getB())
+				.withBOOL(value.getBOOL())
+				.withNULL(value.getNULL())
+				.withSS(value.getSS())
+				.withNS(value.getNS())
+				.withBS(value.getBS());
 	}
 
 }
-
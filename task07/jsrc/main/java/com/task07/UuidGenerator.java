@@ -2,13 +2,12 @@ package com.task07;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.SdkClientException;
-import com.amazonaws.regions.Regions;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.epam.aws.AwsClients;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
@@ -49,17 +48,13 @@ import java.util.UUID;
 public class UuidGenerator implements RequestHandler<RuleEventSourceItem, Void> {
 	private LambdaLogger logger;
 	private String s3BucketName;
-	private Regions clientRegion = Regions.EU_CENTRAL_1;
+	private static final AmazonS3 s3Client = AwsClients.s3();
 	private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
 	public Void handleRequest(RuleEventSourceItem event, Context context) {
 		logger = context.getLogger();
 		logger.log("event: " + event.toString());
 
-		final AmazonS3 s3Client = AmazonS3ClientBuilder.standard()
-				.withRegion(clientRegion)
-				.build();
-
 		s3BucketName = System.getenv("target_bucket");
 
 		final String fileName = Instant.now().truncatedTo(ChronoUnit.MILLIS).toString();
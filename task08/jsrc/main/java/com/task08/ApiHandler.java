@@ -34,8 +34,8 @@ import java.util.function.Function;
 		invokeMode = InvokeMode.BUFFERED
 )
 public class ApiHandler implements RequestHandler<APIGatewayV2HTTPEvent, String> {
-	private final Map<RouteKey, Function<APIGatewayV2HTTPEvent, String>> routeHandlers = Map.of(
-			new RouteKey("GET", "/weather"), this::handleWeather
+	private final Map<String, Map<String, Function<APIGatewayV2HTTPEvent, String>>> routeHandlers = Map.of(
+			"/weather", Map.of("GET", this::handleWeather)
 	);
 
 	private String handleWeather(APIGatewayV2HTTPEvent apiGatewayV2HTTPEvent) {
@@ -46,8 +46,12 @@ public class ApiHandler implements RequestHandler<APIGatewayV2HTTPEvent, String>
 
 	@Override
 	public String handleRequest(APIGatewayV2HTTPEvent requestEvent, Context context) {
-		RouteKey routeKey = new RouteKey(getMethod(requestEvent), getPath(requestEvent));
-		return routeHandlers.getOrDefault(routeKey, this::badResponse).apply(requestEvent);
+		final String path = getPath(requestEvent);
+		final String method = getMethod(requestEvent);
+		Map<String, Function<APIGatewayV2HTTPEvent, String>> methodHandlers = path == null ? null : routeHandlers.get(path);
+		Function<APIGatewayV2HTTPEvent, String> handler =
+				methodHandlers == null || method == null ? null : methodHandlers.get(method);
+		return handler == null ? badResponse(requestEvent) : handler.apply(requestEvent);
 	}
 
 	private String badResponse(APIGatewayV2HTTPEvent apiGatewayV2HTTPEvent) {
@@ -58,13 +62,18 @@ public class ApiHandler implements RequestHandler<APIGatewayV2HTTPEvent, String>
 	}
 
 	private String getMethod(APIGatewayV2HTTPEvent requestEvent) {
-		return requestEvent.getRequestContext().getHttp().getMethod();
+		APIGatewayV2HTTPEvent.RequestContext requestContext = requestEvent.getRequestContext();
+		if (requestContext == null || requestContext.getHttp() == null) {
+			return null;
+		}
+		return requestContext.getHttp().getMethod();
 	}
 
 	private String getPath(APIGatewayV2HTTPEvent requestEvent) {
-		return requestEvent.getRequestContext().getHttp().getPath();
-	}
-
-	private record RouteKey(String method, String path) {
+		APIGatewayV2HTTPEvent.RequestContext requestContext = requestEvent.getRequestContext();
+		if (requestContext == null || requestContext.getHttp() == null) {
+			return null;
+		}
+		return requestContext.getHttp().getPath();
 	}
 }
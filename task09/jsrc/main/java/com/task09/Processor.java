@@ -1,7 +1,6 @@
 package com.task09;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.Table;
@@ -9,6 +8,7 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.epam.aws.AwsClients;
 import com.epam.openapi.OpenAPISDK;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -52,7 +52,7 @@ import java.util.UUID;
 )
 public class Processor implements RequestHandler<DynamodbEvent, Void> {
     private LambdaLogger logger;
-    private static AmazonDynamoDB client = AmazonDynamoDBClientBuilder.standard().build();
+    private static AmazonDynamoDB client = AwsClients.dynamoDB();
     private static DynamoDB dynamoDB = new DynamoDB(client);
     private String DYNAMODB_TABLE_NAME = "FROM_ENV";
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
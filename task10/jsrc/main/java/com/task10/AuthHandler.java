@@ -4,6 +4,7 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.epam.aws.AwsClients;
 import org.apache.commons.lang3.StringUtils;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
@@ -13,7 +14,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class AuthHandler extends AbstractRequestHandlers {
-    public static final String TEMP_PASSWORD = "TempPassword123!";
     private LambdaLogger logger;
     private String cognitoUserPoolName;
     private String cognitoUserPoolId;
@@ -21,7 +21,7 @@ public class AuthHandler extends AbstractRequestHandlers {
 
     private static final String CLIENT_APP = "client-app";
 
-    CognitoIdentityProviderClient cognitoClient = CognitoIdentityProviderClient.create();
+    CognitoIdentityProviderClient cognitoClient = AwsClients.cognito();
 
 
     public AuthHandler(Context context) {
@@ -92,48 +92,31 @@ public class AuthHandler extends AbstractRequestHandlers {
                                     .name("given_name")
                                     .value(request.lastName)
                                     .build())
-                    .temporaryPassword(TEMP_PASSWORD)
                     .messageAction(MessageActionType.SUPPRESS)
                     .build();
 
-            AdminCreateUserResponse createUserResponse = cognitoClient.adminCreateUser(createUserRequest);
-
-            Thread.sleep(5000);
-
-            // sign in
-            Map<String, String> authParameters = new HashMap<>();
-            authParameters.put("USERNAME", request.email);
-            authParameters.put("PASSWORD", TEMP_PASSWORD);
-
-            AdminInitiateAuthRequest initialRequest = AdminInitiateAuthRequest.builder()
-                    .authFlow(AuthFlowType.ADMIN_NO_SRP_AUTH)
-                    .authParameters(authParameters)
-                    .clientId(cognitoClientId)
-                    .userPoolId(cognitoUserPoolId)
-                    .build();
-
-            AdminInitiateAuthResponse initialResponse = cognitoClient.adminInitiateAuth(initialRequest);
-            if (ChallengeNameType.NEW_PASSWORD_REQUIRED != initialResponse.challengeName()) {
-                throw new RuntimeException("Unexpected challenge: %s".formatted(initialResponse.challengeName()));
-            }
-
-            // Set user's permanent password
-            Map<String, String> challengeResponses = new HashMap<>();
-            challengeResponses.put("USERNAME", request.email);
-            challengeResponses.put("PASSWORD", TEMP_PASSWORD);
-            challengeResponses.put("NEW_PASSWORD", request.password);
-
-            AdminRespondToAuthChallengeRequest finalRequest = AdminRespondToAuthChallengeRequest.builder()
-                    .challengeName(ChallengeNameType.NEW_PASSWORD_REQUIRED)
-                    .challengeResponses(challengeResponses)
-                    .clientId(cognitoClientId)
-                    .userPoolId(cognitoUserPoolId)
-                    .session(initialResponse.session())
-                    .build();
-
-            AdminRespondToAuthChallengeResponse response = cognitoClient.adminRespondToAuthChallenge(finalRequest);
-            if (response.challengeName() != null) {
-                throw new RuntimeException("Unexpected challenge: %s".formatted(initialResponse.challengeName()));
+            cognitoClient.adminCreateUser(createUserRequest);
+
+            // Set user's permanent password directly instead of signing in with a temporary one
+            try {
+                cognitoClient.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
+                        .userPoolId(cognitoUserPoolId)
+                        .username(request.email)
+                        .password(request.password)
+                        .permanent(true)
+                        .build());
+            } catch (RuntimeException e) {
+                // do not leave a user without a usable password behind, so that the signup can be repeated
+                try {
+                    cognitoClient.adminDeleteUser(AdminDeleteUserRequest.builder()
+                            .userPoolId(cognitoUserPoolId)
+                            .username(request.email)
+                            .build());
+                } catch (RuntimeException deleteFailure) {
+                    logger.log("ERROR: cleanup of user %s failed: %s".formatted(request.email, deleteFailure.getMessage()));
+                    e.addSuppressed(deleteFailure);
+                }
+                throw e;
             }
 
             return buildResponse(SC_OK, "");
@@ -1,29 +1,26 @@
 package com.task10;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
 import com.amazonaws.services.dynamodbv2.document.Table;
-import com.amazonaws.services.dynamodbv2.model.AttributeValue;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
-import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 import com.amazonaws.util.StringUtils;
+import com.epam.aws.AwsClients;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class DynamoDBHandler extends AbstractRequestHandlers {
 
     private LambdaLogger logger;
-    private static AmazonDynamoDB client = AmazonDynamoDBClientBuilder.standard().build();
+    private static AmazonDynamoDB client = AwsClients.dynamoDB();
     private static DynamoDB dynamoDB = new DynamoDB(client);
+    private static ParallelScanner scanner = new ParallelScanner(client);
     private String tablesDBTableName;
     private String reservationsDBTableName;
 
@@ -107,39 +104,26 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
     }
 
     private List<ReservationRecord> getReservations() {
-        ScanRequest scanRequest = new ScanRequest().withTableName(reservationsDBTableName);
-        ScanResult result = client.scan(scanRequest);
-
-        return result.getItems().stream()
-                .map(item ->
-                        new ReservationRecord(
-                                Integer.valueOf(item.get("tableNumber").getN()),
-                                item.get("clientName").getS(),
-                                item.get("phoneNumber").getS(),
-                                item.get("date").getS(),
-                                item.get("slotTimeStart").getS(),
-                                item.get("slotTimeEnd").getS()))
-                .collect(Collectors.toList());
+        return scanner.scanAll(reservationsDBTableName, item ->
+                new ReservationRecord(
+                        Integer.valueOf(item.get("tableNumber").getN()),
+                        item.get("clientName").getS(),
+                        item.get("phoneNumber").getS(),
+                        item.get("date").getS(),
+                        item.get("slotTimeStart").getS(),
+                        item.get("slotTimeEnd").getS()));
     }
 
     private List<Integer> getTableNumbers() {
-        ScanRequest scanRequest = new ScanRequest().withTableName(tablesDBTableName);
-        ScanResult result = client.scan(scanRequest);
-
-        return result.getItems().stream()
-                .map(item -> Integer.valueOf(item.get("number").getN()))
-                .collect(Collectors.toList());
+        return scanner.scanAll(tablesDBTableName, item -> Integer.valueOf(item.get("number").getN()));
     }
 
     public APIGatewayProxyResponseEvent handleTablesGet(APIGatewayProxyRequestEvent requestEvent) {
         logger.log(">> handleTablesGet");
 
         try {
-            ScanRequest scanRequest = new ScanRequest().withTableName(tablesDBTableName);
-            ScanResult result = client.scan(scanRequest);
-
             ArrayList<Map<String, Object>> tables = new ArrayList<>();
-            for (Map<String, AttributeValue> item : result.getItems()) {
+            scanner.scan(tablesDBTableName, item -> {
                 logger.log("Table item: %s".formatted(item));
 
                 Map<String, Object> itemValues = new HashMap<>();
@@ -152,8 +136,8 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
                     itemValues.put("minOrder", Integer.valueOf(item.get("minOrder").getN()));
                 }
 
-                tables.add(itemValues);
-            }
+                return itemValues;
+            }, tables::add);
 
             Map<String, Object[]> response = Map.of(
                     "tables", tables.toArray()
@@ -0,0 +1,122 @@
+package com.task10;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Full-table scan that follows {@code LastEvaluatedKey} and splits the table into parallel segments.
+ * The number of segments is derived from the table size reported by DescribeTable (about one segment per scan page).
+ * Mapped rows are handed to the consumer one at a time, so the consumer does not need to be thread-safe.
+ */
+public class ParallelScanner {
+    private static final long BYTES_PER_SEGMENT = 1024 * 1024;
+    private static final int MAX_SEGMENTS = 8;
+    private static final long SEGMENT_COUNT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dynamodb-scan-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AmazonDynamoDB client;
+    private final Map<String, SegmentCount> segmentCounts = new ConcurrentHashMap<>();
+
+    public ParallelScanner(AmazonDynamoDB client) {
+        this.client = client;
+    }
+
+    public <T> List<T> scanAll(String tableName, Function<Map<String, AttributeValue>, T> mapper) {
+        List<T> result = new ArrayList<>();
+        scan(tableName, mapper, result::add);
+        return result;
+    }
+
+    public <T> void scan(String tableName, Function<Map<String, AttributeValue>, T> mapper, Consumer<T> consumer) {
+        final int totalSegments = getSegmentCount(tableName);
+        final Object lock = new Object();
+
+        if (totalSegments == 1) {
+            scanSegment(tableName, null, null, mapper, consumer, lock);
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(totalSegments - 1);
+        try {
+            for (int segment = 1; segment < totalSegments; segment++) {
+                final int current = segment;
+                futures.add(executor.submit(() -> scanSegment(tableName, current, totalSegments, mapper, consumer, lock)));
+            }
+            scanSegment(tableName, 0, totalSegments, mapper, consumer, lock);
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Scan of %s interrupted".formatted(tableName), e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause
+                    ? cause
+                    : new RuntimeException("Scan of %s failed".formatted(tableName), e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> void scanSegment(String tableName, Integer segment, Integer totalSegments,
+                                 Function<Map<String, AttributeValue>, T> mapper, Consumer<T> consumer, Object lock) {
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        do {
+            ScanRequest scanRequest = new ScanRequest()
+                    .withTableName(tableName)
+                    .withSegment(segment)
+                    .withTotalSegments(totalSegments)
+                    .withExclusiveStartKey(lastEvaluatedKey);
+            ScanResult result = client.scan(scanRequest);
+
+            for (Map<String, AttributeValue> item : result.getItems()) {
+                T row = mapper.apply(item);
+                synchronized (lock) {
+                    consumer.accept(row);
+                }
+            }
+            lastEvaluatedKey = result.getLastEvaluatedKey();
+        } while (lastEvaluatedKey != null && !lastEvaluatedKey.isEmpty());
+    }
+
+    private int getSegmentCount(String tableName) {
+        SegmentCount cached = segmentCounts.get(tableName);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.count;
+        }
+
+        Long tableSize = client.describeTable(new DescribeTableRequest().withTableName(tableName))
+                .getTable()
+                .getTableSizeBytes();
+        int count = (int) Math.max(1, Math.min(MAX_SEGMENTS, (tableSize == null ? 0 : tableSize) / BYTES_PER_SEGMENT + 1));
+
+        segmentCounts.put(tableName, new SegmentCount(count, System.currentTimeMillis() + SEGMENT_COUNT_TTL_MILLIS));
+        return count;
+    }
+
+    private record SegmentCount(int count, long expiresAt) {
+    }
+}
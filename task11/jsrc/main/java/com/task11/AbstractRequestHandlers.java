@@ -3,16 +3,20 @@ package com.task11;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import software.amazon.awssdk.utils.CollectionUtils;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class AbstractRequestHandlers {
     protected static final int SC_OK = 200;
     protected static final int SC_BAD_REQUEST = 400;
+    protected static final int SC_UNAUTHORIZED = 401;
+    protected static final int SC_TOO_MANY_REQUESTS = 429;
+    protected static final int SC_SERVICE_UNAVAILABLE = 503;
+    protected static final String TABLES_BATCH_PATH = "/tables/batch";
 
-    protected final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    // Gson is thread-safe and caches its type adapters, so one compact instance is shared by all handlers
+    protected static final Gson gson = new Gson();
     protected final Map<String, String> responseHeaders = Map.of("Content-Type", "application/json");
 
     protected APIGatewayProxyResponseEvent buildResponse(int statusCode, String jsonBody) {
@@ -31,6 +35,36 @@ public class AbstractRequestHandlers {
         return buildResponse(SC_BAD_REQUEST, gson.toJson(response));
     }
 
+    protected APIGatewayProxyResponseEvent buildUnauthorizedResponse() {
+        Map<String, String> response = Map.of(
+                "statusCode", String.valueOf(SC_UNAUTHORIZED),
+                "message", "Unauthorized"
+        );
+
+        return buildResponse(SC_UNAUTHORIZED, gson.toJson(response));
+    }
+
+    protected APIGatewayProxyResponseEvent buildServiceUnavailableResponse(String message) {
+        Map<String, String> response = Map.of(
+                "statusCode", String.valueOf(SC_SERVICE_UNAVAILABLE),
+                "message", "Service unavailable. %s.".formatted(message)
+        );
+
+        return buildResponse(SC_SERVICE_UNAVAILABLE, gson.toJson(response));
+    }
+
+    protected APIGatewayProxyResponseEvent buildTooManyRequestsResponse(long retryAfterMillis) {
+        Map<String, String> response = Map.of(
+                "statusCode", String.valueOf(SC_TOO_MANY_REQUESTS),
+                "message", "Too many requests. Retry later."
+        );
+
+        return buildResponse(SC_TOO_MANY_REQUESTS, gson.toJson(response))
+                .withHeaders(Map.of(
+                        "Content-Type", "application/json",
+                        "Retry-After", String.valueOf(TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999))));
+    }
+
     protected APIGatewayProxyResponseEvent badResponse(APIGatewayProxyRequestEvent requestEvent) {
         Map<String, String> response = Map.of(
                 "statusCode", String.valueOf(SC_BAD_REQUEST),
@@ -46,14 +80,7 @@ public class AbstractRequestHandlers {
     }
 
     protected String getPath(APIGatewayProxyRequestEvent requestEvent) {
-        String path = requestEvent.getPath();
-        if (CollectionUtils.isNotEmpty(requestEvent.getPathParameters()) && path.contains("/tables/")) {
-            path = "/tables_id";
-        }
-        return path;
-    }
-
-    protected record RouteKey(String method, String path) {
+        return requestEvent.getPath();
     }
 
 }
@@ -0,0 +1,73 @@
+package com.task11;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.util.function.Function;
+
+/**
+ * Container-scoped state of the booking API: request handlers, their SDK clients and the router.
+ * Every route except signup and signin requires a valid Cognito token.
+ * Built once on the first request and shared by every warm invocation; a failed build is retried on the next call.
+ */
+public final class ApiContext {
+    private static volatile ApiContext instance;
+
+    private final AuthHandler authHandler;
+    private final DynamoDBHandler dynamoDBHandler;
+    private final Router<Endpoint> router;
+
+    private ApiContext() {
+        authHandler = new AuthHandler();
+        dynamoDBHandler = new DynamoDBHandler();
+        router = Router.<Endpoint>builder()
+                .route("POST", "/signup", Endpoint.open(authHandler::handleSignup))
+                .route("POST", "/signin", Endpoint.open(authHandler::handleSignin))
+                .route("POST", "/tables", Endpoint.authenticated(dynamoDBHandler::handleTablesPost))
+                .route("POST", AbstractRequestHandlers.TABLES_BATCH_PATH,
+                        Endpoint.authenticated(dynamoDBHandler::handleTablesBatchPost))
+                .route("GET", "/tables", Endpoint.authenticated(dynamoDBHandler::handleTablesGet))
+                .route("GET", "/tables/{tableId:int}", Endpoint.authenticated(dynamoDBHandler::handleTablesByIdGet))
+                .route("POST", "/reservations", Endpoint.authenticated(dynamoDBHandler::handleReservationsPost))
+                .route("GET", "/reservations", Endpoint.authenticated(dynamoDBHandler::handleReservationsGet))
+                .build();
+    }
+
+    public static ApiContext get() {
+        ApiContext result = instance;
+        if (result == null) {
+            synchronized (ApiContext.class) {
+                result = instance;
+                if (result == null) {
+                    result = new ApiContext();
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public AuthHandler getAuthHandler() {
+        return authHandler;
+    }
+
+    public DynamoDBHandler getDynamoDBHandler() {
+        return dynamoDBHandler;
+    }
+
+    public Router<Endpoint> getRouter() {
+        return router;
+    }
+
+    public record Endpoint(Function<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler,
+                           boolean authenticated) {
+
+        static Endpoint open(Function<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) {
+            return new Endpoint(handler, false);
+        }
+
+        static Endpoint authenticated(Function<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) {
+            return new Endpoint(handler, true);
+        }
+    }
+}
@@ -4,8 +4,6 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.*;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
 import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
 import com.syndicate.deployment.annotations.lambda.LambdaHandler;
@@ -20,8 +18,10 @@ import com.syndicate.deployment.model.RetentionSetting;
 import com.syndicate.deployment.model.lambda.url.AuthType;
 import com.syndicate.deployment.model.lambda.url.InvokeMode;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @LambdaHandler(lambdaName = "api_handler",
         roleName = "api_handler-role",
@@ -43,60 +43,82 @@ import java.util.function.Function;
 @Dependencies(
         value = {
                 @DependsOn(name = "Tables", resourceType = ResourceType.DYNAMODB_TABLE),
-                @DependsOn(name = "Reservations", resourceType = ResourceType.DYNAMODB_TABLE)
+                @DependsOn(name = "Reservations", resourceType = ResourceType.DYNAMODB_TABLE),
+                @DependsOn(name = "CatalogVersions", resourceType = ResourceType.DYNAMODB_TABLE),
+                @DependsOn(name = "ReservationDays", resourceType = ResourceType.DYNAMODB_TABLE)
         }
 )
 @EnvironmentVariables(
         value = {
                 @EnvironmentVariable(key = "tables_table", value = "${tables_table}"),
                 @EnvironmentVariable(key = "reservations_table", value = "${reservations_table}"),
-                @EnvironmentVariable(key = "cognito_userpool", value = "${booking_userpool}")
+                @EnvironmentVariable(key = "catalog_versions_table", value = "${catalog_versions_table}"),
+                @EnvironmentVariable(key = "reservation_days_table", value = "${reservation_days_table}"),
+                @EnvironmentVariable(key = "cognito_userpool", value = "${booking_userpool}"),
+                @EnvironmentVariable(key = "cognito_userpool_id", value = "${booking_userpool_id}"),
+                @EnvironmentVariable(key = "cognito_client_id", value = "${booking_client_id}"),
+                @EnvironmentVariable(key = "cognito_ids_parameter", value = "${booking_cognito_ids_parameter}")
         }
 )
 public class ApiHandler extends AbstractRequestHandlers implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
-    private LambdaLogger logger;
-    private DynamoDBHandler dynamoDBHandler;
-    private AuthHandler authHandler;
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<String, String> CORS_HEADERS = Map.of(
+            "Access-Control-Allow-Headers", "Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token",
+            "Access-Control-Allow-Origin", "*",
+            "Access-Control-Allow-Methods", "*",
+            "Accept-Version", "*"
+    );
+    private static final AtomicBoolean firstRequest = new AtomicBoolean(true);
 
-    private Map<RouteKey, Function<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> routeHandlers;
+    static {
+        ApiPriming.register();
+    }
 
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent requestEvent, Context context) {
-        logger = context.getLogger();
+        final LambdaLogger logger = context.getLogger();
+        final long startNanos = System.nanoTime();
         logger.log("RequestEvent: " + requestEvent);
         logger.log("Body: " + requestEvent.getBody());
 
         try {
-            authHandler = new AuthHandler(context);
-            dynamoDBHandler = new DynamoDBHandler(context);
-            initRoutes();
+            final ApiContext apiContext = ApiContext.get();
 
-            RouteKey routeKey = new RouteKey(getMethod(requestEvent), getPath(requestEvent));
-            logger.log("RouteKey: " + routeKey);
-            return addHeaders(routeHandlers.getOrDefault(routeKey, this::badResponse).apply(requestEvent));
+            final Router.Route<ApiContext.Endpoint> route =
+                    apiContext.getRouter().match(getMethod(requestEvent), getPath(requestEvent));
+            logger.log("Route: " + route);
+            if (route == null) {
+                return addHeaders(badResponse(requestEvent));
+            }
+            final ApiContext.Endpoint endpoint = route.handler();
+            if (endpoint.authenticated()) {
+                apiContext.getAuthHandler().authenticate(requestEvent);
+            }
+            if (route.hasPathParameters()) {
+                requestEvent.setPathParameters(route.pathParameters(getPath(requestEvent)));
+            }
+            return addHeaders(endpoint.handler().apply(requestEvent));
+        } catch (UnauthenticatedException e) {
+            logger.log("Unauthorized: %s".formatted(e.getMessage()));
+            return addHeaders(buildUnauthorizedResponse());
+        } catch (JwksCache.UnavailableException e) {
+            logger.log("ERROR: %s".formatted(e.getMessage()));
+            return addHeaders(buildServiceUnavailableResponse("Cannot verify tokens"));
         } catch (RuntimeException e){
             return buildErrorResponse(e.getMessage());
+        } finally {
+            if (firstRequest.compareAndSet(true, false)) {
+                logger.log("First request took %d ms (primed: %s)".formatted(
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), ApiPriming.isPrimed()));
+            }
         }
     }
 
-    private void initRoutes(){
-        routeHandlers = Map.of(
-                new RouteKey("POST", "/signup"), authHandler::handleSignup,
-                new RouteKey("POST", "/signin"), authHandler::handleSignin,
-                new RouteKey("POST", "/tables"), dynamoDBHandler::handleTablesPost,
-                new RouteKey("GET", "/tables"), dynamoDBHandler::handleTablesGet,
-                new RouteKey("GET", "/tables_id"), dynamoDBHandler::handleTablesByIdGet,
-                new RouteKey("POST", "/reservations"), dynamoDBHandler::handleReservationsPost,
-                new RouteKey("GET", "/reservations"), dynamoDBHandler::handleReservationsGet
-        );
-    }
-
     private APIGatewayProxyResponseEvent addHeaders(APIGatewayProxyResponseEvent response) {
-        return response.withHeaders(Map.of(
-                "Access-Control-Allow-Headers", "Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token",
-                "Access-Control-Allow-Origin", "*",
-                "Access-Control-Allow-Methods", "*",
-                "Accept-Version", "*"
-        ));
+        // keep the handler's own headers, e.g. Retry-After of a throttled signin
+        if (response.getHeaders() == null) {
+            return response.withHeaders(CORS_HEADERS);
+        }
+        Map<String, String> headers = new HashMap<>(response.getHeaders());
+        headers.putAll(CORS_HEADERS);
+        return response.withHeaders(headers);
     }
 }
@@ -0,0 +1,85 @@
+package com.task11;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+
+import java.util.Map;
+
+/**
+ * Checkpoint/restore hooks of the booking API (Lambda SnapStart).
+ * <p>
+ * Before the checkpoint the container context is built and every cheap route is called once with a dry-run request,
+ * so the snapshot already holds the loaded SDK and Gson classes, the resolved Cognito ids and a warm Tables catalog.
+ * Dry-run requests either fail validation or only read. After restore the data caches are dropped and DynamoDB is
+ * called once to open a fresh connection with the restored credentials.
+ * <p>
+ * Set {@code api_priming=false} to skip the hooks, e.g. to compare first-request latency with and without priming.
+ */
+final class ApiPriming implements Resource {
+    // CRaC keeps registered resources weakly, so the instance is held here
+    private static final ApiPriming INSTANCE = new ApiPriming();
+
+    private static volatile boolean primed;
+
+    private ApiPriming() {
+    }
+
+    static void register() {
+        if (!"false".equalsIgnoreCase(System.getenv("api_priming"))) {
+            Core.getGlobalContext().register(INSTANCE);
+        }
+    }
+
+    static boolean isPrimed() {
+        return primed;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        final LambdaLogger logger = LambdaRuntime.getLogger();
+        final long startMillis = System.currentTimeMillis();
+        try {
+            final ApiContext apiContext = ApiContext.get();
+            apiContext.getAuthHandler().prime();
+            apiContext.getDynamoDBHandler().prime();
+
+            dryRun(apiContext, "POST", "/tables", Map.of(), "{}");
+            dryRun(apiContext, "POST", "/reservations", Map.of(), "{}");
+            dryRun(apiContext, "GET", "/tables", Map.of(), null);
+            dryRun(apiContext, "GET", "/reservations", Map.of("limit", "1"), null);
+
+            primed = true;
+            logger.log("Primed before checkpoint in %d ms".formatted(System.currentTimeMillis() - startMillis));
+        } catch (RuntimeException e) {
+            // a snapshot without priming is still better than a failed deployment
+            logger.log("WARN: priming failed: %s".formatted(e.getMessage()));
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        final LambdaLogger logger = LambdaRuntime.getLogger();
+        final long startMillis = System.currentTimeMillis();
+        try {
+            ApiContext.get().getDynamoDBHandler().afterRestore();
+            logger.log("Reconnected after restore in %d ms".formatted(System.currentTimeMillis() - startMillis));
+        } catch (RuntimeException e) {
+            logger.log("WARN: reconnect after restore failed: %s".formatted(e.getMessage()));
+        }
+    }
+
+    private static void dryRun(ApiContext apiContext, String method, String path,
+                               Map<String, String> queryParameters, String body) {
+        APIGatewayProxyRequestEvent requestEvent = new APIGatewayProxyRequestEvent()
+                .withHttpMethod(method)
+                .withPath(path)
+                .withQueryStringParameters(queryParameters)
+                .withBody(body);
+        // dry runs call the handler directly, they carry no token
+        apiContext.getRouter().match(method, path).handler().handler().apply(requestEvent);
+    }
+}
@@ -0,0 +1,133 @@
+package com.task11;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.epam.aws.BatchWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Future-based facade over the blocking DynamoDB client. Each call runs on a shared daemon pool, so a request can
+ * issue its independent reads together and wait roughly as long as the slowest one.
+ * The same pool backs the parallel scan and batch write helpers.
+ */
+public class AsyncDynamoDB {
+    private static final int MAX_BATCH_GET_SIZE = 100;
+    private static final int MAX_BATCH_GET_ATTEMPTS = 6;
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dynamodb-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AmazonDynamoDB client;
+
+    public AsyncDynamoDB(AmazonDynamoDB client) {
+        this.client = client;
+    }
+
+    public static ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * Waits for the future and rethrows its failure unwrapped, the way the blocking call would have thrown it.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    public CompletableFuture<Map<String, AttributeValue>> getItem(GetItemRequest request) {
+        return supply(() -> client.getItem(request).getItem());
+    }
+
+    /**
+     * Runs the query and follows {@code LastEvaluatedKey} until all matching items are read.
+     */
+    public CompletableFuture<List<Map<String, AttributeValue>>> queryAll(QueryRequest request) {
+        return supply(() -> {
+            List<Map<String, AttributeValue>> items = new ArrayList<>();
+            Map<String, AttributeValue> lastEvaluatedKey = null;
+            do {
+                QueryResult result = client.query(request.clone().withExclusiveStartKey(lastEvaluatedKey));
+                items.addAll(result.getItems());
+                lastEvaluatedKey = result.getLastEvaluatedKey();
+            } while (lastEvaluatedKey != null && !lastEvaluatedKey.isEmpty());
+            return items;
+        });
+    }
+
+    /**
+     * Reads the keys in 100-key BatchGetItem chunks issued in parallel. Unprocessed keys are retried with backoff;
+     * the future fails if some keys are still unprocessed after the last attempt. Result order is not specified.
+     */
+    public CompletableFuture<List<Map<String, AttributeValue>>> batchGetItem(String tableName,
+                                                                            List<Map<String, AttributeValue>> keys) {
+        List<CompletableFuture<List<Map<String, AttributeValue>>>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_BATCH_GET_SIZE) {
+            List<Map<String, AttributeValue>> chunk = keys.subList(from, Math.min(from + MAX_BATCH_GET_SIZE, keys.size()));
+            chunks.add(supply(() -> batchGetChunk(tableName, chunk)));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<Map<String, AttributeValue>> items = new ArrayList<>(keys.size());
+                    chunks.forEach(chunk -> items.addAll(chunk.join()));
+                    return items;
+                });
+    }
+
+    private List<Map<String, AttributeValue>> batchGetChunk(String tableName, List<Map<String, AttributeValue>> keys) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>(keys.size());
+        KeysAndAttributes pending = new KeysAndAttributes().withKeys(keys);
+
+        for (int attempt = 1; pending != null && !pending.getKeys().isEmpty(); attempt++) {
+            if (attempt > MAX_BATCH_GET_ATTEMPTS) {
+                throw new RuntimeException("%d keys of %s unprocessed after %d attempts".formatted(
+                        pending.getKeys().size(), tableName, MAX_BATCH_GET_ATTEMPTS));
+            }
+            if (attempt > 1) {
+                sleep(BatchWriter.backoffMillis(attempt));
+            }
+
+            BatchGetItemResult result = client.batchGetItem(
+                    new BatchGetItemRequest().withRequestItems(Map.of(tableName, pending)));
+            items.addAll(result.getResponses().getOrDefault(tableName, List.of()));
+            pending = result.getUnprocessedKeys() == null ? null : result.getUnprocessedKeys().get(tableName);
+        }
+        return items;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while backing off", e);
+        }
+    }
+}
@@ -1,35 +1,109 @@
 package com.task11;
 
-import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.epam.aws.AwsClients;
 import org.apache.commons.lang3.StringUtils;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class AuthHandler extends AbstractRequestHandlers {
-    public static final String TEMP_PASSWORD = "TempPassword123!";
-    private LambdaLogger logger;
-    private String cognitoUserPoolName;
-    private String cognitoUserPoolId;
-    private String cognitoClientId;
+    private final LambdaLogger logger = LambdaRuntime.getLogger();
+    private final CognitoIdResolver cognitoIdResolver;
+    private final JwtVerifier jwtVerifier;
 
     private static final String CLIENT_APP = "client-app";
+    private static final String BEARER_PREFIX = "Bearer ";
 
-    CognitoIdentityProviderClient cognitoClient = CognitoIdentityProviderClient.create();
+    // checked before Cognito is called, so bad-password retries do not use up the Cognito quota
+    private static final RateLimiter signinsByEmail = new RateLimiter(5, 12, TimeUnit.SECONDS);
+    private static final RateLimiter signinsBySourceIp = new RateLimiter(20, 3, TimeUnit.SECONDS);
 
+    private final CognitoIdentityProviderClient cognitoClient = AwsClients.cognito();
 
-    public AuthHandler(Context context) {
-        logger = context.getLogger();
-        cognitoUserPoolName = System.getenv("cognito_userpool");
 
-        cognitoUserPoolId = getUserPoolId();
-        cognitoClientId = getClientId();
+    public AuthHandler() {
+        cognitoIdResolver = new CognitoIdResolver(cognitoClient, AwsClients::ssm, System.getenv("cognito_userpool"), CLIENT_APP);
+        jwtVerifier = new JwtVerifier(cognitoIdResolver::get, System.getenv("AWS_REGION"));
+    }
+
+    /**
+     * Resolves the Cognito ids and loads the token signing keys ahead of the first request. Used before a checkpoint.
+     */
+    void prime() {
+        cognitoIdResolver.get();
+        jwtVerifier.prime();
+    }
+
+    /**
+     * Checks the token of the Authorization header, with or without the "Bearer " prefix.
+     *
+     * @throws UnauthenticatedException        if there is no valid token
+     * @throws JwksCache.UnavailableException if the signing keys cannot be loaded
+     */
+    public void authenticate(APIGatewayProxyRequestEvent requestEvent) {
+        String token = getHeader(requestEvent, "Authorization");
+        if (StringUtils.isBlank(token)) {
+            throw new UnauthenticatedException("no token");
+        }
+        if (StringUtils.startsWithIgnoreCase(token, BEARER_PREFIX)) {
+            token = token.substring(BEARER_PREFIX.length()).trim();
+        }
+        jwtVerifier.verify(token);
+    }
+
+    /**
+     * @return 0 if the signin may proceed, otherwise the milliseconds the client has to wait
+     */
+    private long throttleSignin(APIGatewayProxyRequestEvent requestEvent, SinginRecord request) {
+        final String sourceIp = getSourceIp(requestEvent);
+        long retryAfterMillis = sourceIp == null ? 0 : signinsBySourceIp.tryAcquire(sourceIp);
+        if (retryAfterMillis == 0 && request != null && StringUtils.isNotBlank(request.email)) {
+            retryAfterMillis = signinsByEmail.tryAcquire(request.email.trim().toLowerCase(Locale.ROOT));
+        }
+        if (retryAfterMillis > 0) {
+            logger.log("Signin throttled for %s, retry after %d ms".formatted(sourceIp, retryAfterMillis));
+        }
+        return retryAfterMillis;
+    }
+
+    /**
+     * The caller address from the request context; a Lambda URL event has no identity block, so the last
+     * X-Forwarded-For address is used there. That one is appended by the AWS edge, while the entries before it
+     * come from the client and can be anything.
+     */
+    private static String getSourceIp(APIGatewayProxyRequestEvent requestEvent) {
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = requestEvent.getRequestContext();
+        if (requestContext != null && requestContext.getIdentity() != null
+                && StringUtils.isNotBlank(requestContext.getIdentity().getSourceIp())) {
+            return requestContext.getIdentity().getSourceIp();
+        }
+        String forwardedFor = getHeader(requestEvent, "X-Forwarded-For");
+        return StringUtils.isBlank(forwardedFor) ? null : StringUtils.substringAfterLast("," + forwardedFor, ",").trim();
+    }
+
+    private static String getHeader(APIGatewayProxyRequestEvent requestEvent, String name) {
+        Map<String, String> headers = requestEvent.getHeaders();
+        if (headers == null) {
+            return null;
+        }
+        String value = headers.get(name);
+        if (value == null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    return header.getValue();
+                }
+            }
+        }
+        return value;
     }
 
     public APIGatewayProxyResponseEvent handleSignin(APIGatewayProxyRequestEvent requestEvent) {
@@ -38,18 +112,22 @@ public class AuthHandler extends AbstractRequestHandlers {
             final SinginRecord request =
                     gson.fromJson(requestEvent.getBody(), SinginRecord.class);
 
+            final long retryAfterMillis = throttleSignin(requestEvent, request);
+            if (retryAfterMillis > 0) {
+                return buildTooManyRequestsResponse(retryAfterMillis);
+            }
+
             Map<String, String> authParameters = new HashMap<>();
             authParameters.put("USERNAME", request.email);
             authParameters.put("PASSWORD", request.password);
 
-            AdminInitiateAuthRequest authRequest = AdminInitiateAuthRequest.builder()
-                    .authFlow(AuthFlowType.ADMIN_USER_PASSWORD_AUTH)
-                    .clientId(cognitoClientId)
-                    .userPoolId(cognitoUserPoolId)
-                    .authParameters(authParameters)
-                    .build();
-
-            AdminInitiateAuthResponse authResponse = cognitoClient.adminInitiateAuth(authRequest);
+            AdminInitiateAuthResponse authResponse = cognitoIdResolver.withIds(ids ->
+                    cognitoClient.adminInitiateAuth(AdminInitiateAuthRequest.builder()
+                            .authFlow(AuthFlowType.ADMIN_USER_PASSWORD_AUTH)
+                            .clientId(ids.clientId())
+                            .userPoolId(ids.userPoolId())
+                            .authParameters(authParameters)
+                            .build()));
             String accessToken = authResponse.authenticationResult().idToken(); //.accessToken();
 
             Map<String, String> response = Map.of("accessToken", accessToken);
@@ -76,64 +154,48 @@ public class AuthHandler extends AbstractRequestHandlers {
         }
 
         try {
-            AdminCreateUserRequest createUserRequest = AdminCreateUserRequest.builder()
-                    .userPoolId(cognitoUserPoolId)
-                    .username(request.email)
-                    .userAttributes(
-                            AttributeType.builder()
-                                    .name("email")
-                                    .value(request.email)
-                                    .build(),
-                            AttributeType.builder()
-                                    .name("family_name")
-                                    .value(request.firstName)
-                                    .build(),
-                            AttributeType.builder()
-                                    .name("given_name")
-                                    .value(request.lastName)
-                                    .build())
-                    .temporaryPassword(TEMP_PASSWORD)
-                    .messageAction(MessageActionType.SUPPRESS)
-                    .build();
-
-            AdminCreateUserResponse createUserResponse = cognitoClient.adminCreateUser(createUserRequest);
-
-            Thread.sleep(5000);
-
-            // sign in
-            Map<String, String> authParameters = new HashMap<>();
-            authParameters.put("USERNAME", request.email);
-            authParameters.put("PASSWORD", TEMP_PASSWORD);
-
-            AdminInitiateAuthRequest initialRequest = AdminInitiateAuthRequest.builder()
-                    .authFlow(AuthFlowType.ADMIN_NO_SRP_AUTH)
-                    .authParameters(authParameters)
-                    .clientId(cognitoClientId)
-                    .userPoolId(cognitoUserPoolId)
-                    .build();
-
-            AdminInitiateAuthResponse initialResponse = cognitoClient.adminInitiateAuth(initialRequest);
-            if (ChallengeNameType.NEW_PASSWORD_REQUIRED != initialResponse.challengeName()) {
-                throw new RuntimeException("Unexpected challenge: %s".formatted(initialResponse.challengeName()));
-            }
-
-            // Set user's permanent password
-            Map<String, String> challengeResponses = new HashMap<>();
-            challengeResponses.put("USERNAME", request.email);
-            challengeResponses.put("PASSWORD", TEMP_PASSWORD);
-            challengeResponses.put("NEW_PASSWORD", request.password);
-
-            AdminRespondToAuthChallengeRequest finalRequest = AdminRespondToAuthChallengeRequest.builder()
-                    .challengeName(ChallengeNameType.NEW_PASSWORD_REQUIRED)
-                    .challengeResponses(challengeResponses)
-                    .clientId(cognitoClientId)
-                    .userPoolId(cognitoUserPoolId)
-                    .session(initialResponse.session())
-                    .build();
-
-            AdminRespondToAuthChallengeResponse response = cognitoClient.adminRespondToAuthChallenge(finalRequest);
-            if (response.challengeName() != null) {
-                throw new RuntimeException("Unexpected challenge: %s".formatted(initialResponse.challengeName()));
+            final CognitoIdResolver.CognitoIds ids = cognitoIdResolver.withIds(currentIds -> {
+                cognitoClient.adminCreateUser(AdminCreateUserRequest.builder()
+                        .userPoolId(currentIds.userPoolId())
+                        .username(request.email)
+                        .userAttributes(
+                                AttributeType.builder()
+                                        .name("email")
+                                        .value(request.email)
+                                        .build(),
+                                AttributeType.builder()
+                                        .name("family_name")
+                                        .value(request.firstName)
+                                        .build(),
+                                AttributeType.builder()
+                                        .name("given_name")
+                                        .value(request.lastName)
+                                        .build())
+                        .messageAction(MessageActionType.SUPPRESS)
+                        .build());
+                return currentIds;
+            });
+
+            // Set user's permanent password directly instead of signing in with a temporary one
+            try {
+                cognitoClient.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
+                        .userPoolId(ids.userPoolId())
+                        .username(request.email)
+                        .password(request.password)
+                        .permanent(true)
+                        .build());
+            } catch (RuntimeException e) {
+                // do not leave a user without a usable password behind, so that the signup can be repeated
+                try {
+                    cognitoClient.adminDeleteUser(AdminDeleteUserRequest.builder()
+                            .userPoolId(ids.userPoolId())
+                            .username(request.email)
+                            .build());
+                } catch (RuntimeException deleteFailure) {
+                    logger.log("ERROR: cleanup of user %s failed: %s".formatted(request.email, deleteFailure.getMessage()));
+                    e.addSuppressed(deleteFailure);
+                }
+                throw e;
             }
 
             return buildResponse(SC_OK, "");
@@ -144,31 +206,6 @@ public class AuthHandler extends AbstractRequestHandlers {
         }
     }
 
-    private String getUserPoolId() {
-        String userPoolId = cognitoClient.listUserPools(ListUserPoolsRequest.builder().maxResults(50).build())
-                .userPools().stream()
-                .filter(p -> p.name().contains(cognitoUserPoolName))
-                .findAny()
-                .orElseThrow(() -> new RuntimeException("User pool %s not found".formatted(cognitoUserPoolName)))
-                .id();
-
-        logger.log("userPoolId: %s".formatted(userPoolId));
-        return userPoolId;
-    }
-
-    private String getClientId() {
-        String clientId = cognitoClient.listUserPoolClients(
-                        ListUserPoolClientsRequest.builder().userPoolId(cognitoUserPoolId).maxResults(1).build())
-                .userPoolClients().stream()
-                .filter(c -> c.clientName().contains(CLIENT_APP))
-                .findAny()
-                .orElseThrow(() -> new RuntimeException("User pool %s not found".formatted(cognitoUserPoolName)))
-                .clientId();
-
-        logger.log("clientId: %s".formatted(clientId));
-        return clientId;
-    }
-
     private boolean isValidPassword(String password) {
         String pattern = "^(?=.*[0-9])(?=.*[A-Za-z])(?=.*[$%^*_@])(?=\\S+$).{12,}$";
         return password.matches(pattern);
@@ -0,0 +1,178 @@
+package com.task11;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import org.apache.commons.lang3.StringUtils;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUserPoolClientsRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUserPoolClientsResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUserPoolsRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUserPoolsResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserPoolClientDescription;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserPoolDescriptionType;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParametersRequest;
+import software.amazon.awssdk.services.ssm.model.GetParametersResponse;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resolves the user pool id and app client id of the booking API.
+ * Ids set in the cognito_userpool_id / cognito_client_id environment variables are used as is. Otherwise they are
+ * read from the SSM parameters {@code <prefix>/userpool_id} and {@code <prefix>/client_id} when the
+ * cognito_ids_parameter environment variable names a prefix, or else looked up by name through the Cognito
+ * control plane. Resolved ids are cached for {@link #TTL_MILLIS}.
+ */
+public class CognitoIdResolver {
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final LambdaLogger logger = LambdaRuntime.getLogger();
+    private final CognitoIdentityProviderClient cognitoClient;
+    private final Supplier<SsmClient> ssmClient;
+    private final String parameterPrefix;
+    private final String userPoolName;
+    private final String clientName;
+    private final CognitoIds configuredIds;
+
+    private volatile CachedIds cached;
+
+    /**
+     * @param ssmClient only called when the ids are read from SSM parameters
+     */
+    public CognitoIdResolver(CognitoIdentityProviderClient cognitoClient, Supplier<SsmClient> ssmClient,
+                             String userPoolName, String clientName) {
+        this.cognitoClient = cognitoClient;
+        this.ssmClient = ssmClient;
+        this.parameterPrefix = StringUtils.removeEnd(System.getenv("cognito_ids_parameter"), "/");
+        this.userPoolName = userPoolName;
+        this.clientName = clientName;
+
+        String userPoolId = System.getenv("cognito_userpool_id");
+        String clientId = System.getenv("cognito_client_id");
+        configuredIds = StringUtils.isNoneBlank(userPoolId, clientId) ? new CognitoIds(userPoolId, clientId) : null;
+    }
+
+    /**
+     * Runs a Cognito call with the current ids. If Cognito answers ResourceNotFound, the cached ids are dropped
+     * and the call is repeated once with freshly resolved ids.
+     */
+    public <T> T withIds(Function<CognitoIds, T> call) {
+        CognitoIds ids = get();
+        try {
+            return call.apply(ids);
+        } catch (ResourceNotFoundException e) {
+            if (configuredIds != null) {
+                throw e;
+            }
+            logger.log("Cognito ids %s are stale, resolving again: %s".formatted(ids, e.getMessage()));
+            invalidate(ids);
+            return call.apply(get());
+        }
+    }
+
+    public CognitoIds get() {
+        if (configuredIds != null) {
+            return configuredIds;
+        }
+
+        CachedIds current = cached;
+        if (current != null && current.expiresAt > System.currentTimeMillis()) {
+            return current.ids;
+        }
+
+        synchronized (this) {
+            current = cached;
+            if (current == null || current.expiresAt <= System.currentTimeMillis()) {
+                current = new CachedIds(resolve(), System.currentTimeMillis() + TTL_MILLIS);
+                cached = current;
+            }
+            return current.ids;
+        }
+    }
+
+    public synchronized void invalidate(CognitoIds stale) {
+        CachedIds current = cached;
+        if (current != null && current.ids.equals(stale)) {
+            cached = null;
+        }
+    }
+
+    private CognitoIds resolve() {
+        CognitoIds ids = StringUtils.isBlank(parameterPrefix) ? null : readParameters();
+        if (ids == null) {
+            String userPoolId = findUserPoolId();
+            ids = new CognitoIds(userPoolId, findClientId(userPoolId));
+        }
+        logger.log("Resolved cognito ids: %s".formatted(ids));
+        return ids;
+    }
+
+    /**
+     * Reads both ids with one GetParameters call.
+     *
+     * @return null if a parameter is missing or blank, so the ids are looked up by name instead
+     */
+    private CognitoIds readParameters() {
+        String userPoolIdName = parameterPrefix + "/userpool_id";
+        String clientIdName = parameterPrefix + "/client_id";
+        GetParametersResponse response = ssmClient.get().getParameters(
+                GetParametersRequest.builder().names(userPoolIdName, clientIdName).build());
+
+        String userPoolId = null;
+        String clientId = null;
+        for (Parameter parameter : response.parameters()) {
+            if (parameter.name().equals(userPoolIdName)) {
+                userPoolId = parameter.value();
+            } else if (parameter.name().equals(clientIdName)) {
+                clientId = parameter.value();
+            }
+        }
+        if (StringUtils.isAnyBlank(userPoolId, clientId)) {
+            logger.log("SSM parameters %s not found, looking up cognito ids by name".formatted(response.invalidParameters()));
+            return null;
+        }
+        return new CognitoIds(userPoolId, clientId);
+    }
+
+    private String findUserPoolId() {
+        String nextToken = null;
+        do {
+            ListUserPoolsResponse response = cognitoClient.listUserPools(
+                    ListUserPoolsRequest.builder().maxResults(60).nextToken(nextToken).build());
+            for (UserPoolDescriptionType userPool : response.userPools()) {
+                if (userPool.name().contains(userPoolName)) {
+                    return userPool.id();
+                }
+            }
+            nextToken = response.nextToken();
+        } while (nextToken != null);
+
+        throw new RuntimeException("User pool %s not found".formatted(userPoolName));
+    }
+
+    private String findClientId(String userPoolId) {
+        String nextToken = null;
+        do {
+            ListUserPoolClientsResponse response = cognitoClient.listUserPoolClients(
+                    ListUserPoolClientsRequest.builder().userPoolId(userPoolId).maxResults(60).nextToken(nextToken).build());
+            for (UserPoolClientDescription client : response.userPoolClients()) {
+                if (client.clientName().contains(clientName)) {
+                    return client.clientId();
+                }
+            }
+            nextToken = response.nextToken();
+        } while (nextToken != null);
+
+        throw new RuntimeException("Client %s of user pool %s not found".formatted(clientName, userPoolName));
+    }
+
+    public record CognitoIds(String userPoolId, String clientId) {
+    }
+
+    private record CachedIds(CognitoIds ids, long expiresAt) {
+    }
+}
@@ -1,63 +1,81 @@
 package com.task11;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
-import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
 import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
-import com.amazonaws.services.dynamodbv2.model.ScanResult;
-import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.Select;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
-import com.amazonaws.util.StringUtils;
+import com.epam.aws.AwsClients;
+import com.epam.aws.BatchWriter;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 public class DynamoDBHandler extends AbstractRequestHandlers {
-
-    private LambdaLogger logger;
-    private static AmazonDynamoDB client = AmazonDynamoDBClientBuilder.standard().build();
+    private static final String TABLES_NUMBER_INDEX = "number-index";
+    private static final String RESERVATIONS_TABLE_DATE_INDEX = "tableNumber-date-index";
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int MAX_PAGE_LIMIT = 100;
+    private static final int MAX_TABLES_BATCH_SIZE = 500;
+
+    private final LambdaLogger logger = LambdaRuntime.getLogger();
+    private static AmazonDynamoDB client = AwsClients.dynamoDB();
     private static DynamoDB dynamoDB = new DynamoDB(client);
-    private String tablesDBTableName;
-    private String reservationsDBTableName;
-
-    public DynamoDBHandler(Context context) {
-        logger = context.getLogger();
+    private static ParallelScanner scanner = new ParallelScanner(client);
+    private static ReservationIntervalIndex reservationIndex = new ReservationIntervalIndex();
+    private static BatchWriter batchWriter = new BatchWriter(client, AsyncDynamoDB.executor());
+    private static AsyncDynamoDB asyncDynamoDB = new AsyncDynamoDB(client);
+    private final String tablesDBTableName;
+    private final String reservationsDBTableName;
+    private final TablesCatalog tablesCatalog;
+    private final ReservationDays reservationDays;
+
+    public DynamoDBHandler() {
         tablesDBTableName = System.getenv("tables_table");
         reservationsDBTableName = System.getenv("reservations_table");
+        tablesCatalog = new TablesCatalog(client, scanner, tablesDBTableName, System.getenv("catalog_versions_table"));
+        reservationDays = new ReservationDays(client, System.getenv("reservation_days_table"));
+    }
+
+    /**
+     * Loads the Tables catalog, which also runs the SDK scan and get paths once. Used before a checkpoint.
+     */
+    void prime() {
+        tablesCatalog.get();
+    }
+
+    /**
+     * Drops data cached before the checkpoint and opens a new connection to DynamoDB.
+     */
+    void afterRestore() {
+        tablesCatalog.invalidate();
+        reservationIndex.clear();
+        client.describeTable(new DescribeTableRequest().withTableName(tablesDBTableName));
     }
 
     public APIGatewayProxyResponseEvent handleReservationsGet(APIGatewayProxyRequestEvent requestEvent) {
         logger.log(">> handleReservationsGet");
 
         try {
-            final List<ReservationRecord> reservationsList = getReservations();
-            logger.log("reservations: " + reservationsList);
-
-            ArrayList<Map<String, Object>> reservations = new ArrayList<>();
-            for (ReservationRecord item : reservationsList) {
-                Map<String, Object> itemValues = Map.of(
-                        "tableNumber", item.tableNumber,
-                        "clientName", item.clientName,
-                        "phoneNumber", item.phoneNumber,
-                        "date", item.date,
-                        "slotTimeStart", item.slotTimeStart,
-                        "slotTimeEnd", item.slotTimeEnd
-                );
-                reservations.add(itemValues);
-            }
+            final String body = writeList("reservations", reservationsDBTableName, requestEvent,
+                    DynamoDBHandler::writeReservation);
 
-            Map<String, Object[]> response = Map.of(
-                    "reservations", reservations.toArray()
-            );
-
-            return buildResponse(SC_OK, gson.toJson(response));
+            return buildResponse(SC_OK, body);
         } catch (Exception e) {
             logger.log("ERROR: %s".formatted(Arrays.asList(e.getStackTrace())));
             logger.log("ERROR: Get items failed. %s".formatted(e.getMessage()), LogLevel.ERROR);
@@ -70,31 +88,40 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
 
         final ReservationRecord reservationRecord = gson.fromJson(requestEvent.getBody(), ReservationRecord.class);
 
-        Table table = dynamoDB.getTable(reservationsDBTableName);
         try {
-            final List<Integer> tableNumbers = getTableNumbers();
-            logger.log("tableIds: " + tableNumbers);
-            final List<ReservationRecord> reservations = getReservations();
-            logger.log("reservations: " + reservations);
-
-            if (!validatePostReservationsRequest(reservationRecord, tableNumbers, reservations)) {
+            if (!validatePostReservationsRequest(reservationRecord)) {
                 logger.log("ERROR: invalid reservation");
                 return buildErrorResponse("Invalid reservation");
             }
 
+            // the table check and the day's bookings do not depend on each other, so both reads are issued at once
+            final Integer tableNumber = reservationRecord.tableNumber;
+            final String date = reservationRecord.date;
+            final CompletableFuture<List<ReservationIntervalIndex.Slot>> reservedSlots =
+                    reservationIndex.isFresh(tableNumber, date) ? null : loadReservedSlots(tableNumber, date);
+            if (!tableExists(tableNumber)) {
+                logger.log("ERROR: table %d does not exist".formatted(tableNumber));
+                return buildErrorResponse("Invalid reservation");
+            }
+            final BiFunction<Integer, String, List<ReservationIntervalIndex.Slot>> slotsLoader = reservedSlots == null
+                    ? this::getReservedSlots
+                    : (number, day) -> AsyncDynamoDB.join(reservedSlots);
+
             final String reservationId = UUID.randomUUID().toString();
 
-            Item item = new Item()
-                    .withPrimaryKey("id", reservationId)
-                    .withNumber("tableNumber", reservationRecord.tableNumber)
-                    .withString("clientName", reservationRecord.clientName)
-                    .withString("phoneNumber", reservationRecord.phoneNumber)
-                    .withString("date", reservationRecord.date)
-                    .withString("slotTimeStart", reservationRecord.slotTimeStart)
-                    .withString("slotTimeEnd", reservationRecord.slotTimeEnd);
+            final Map<String, AttributeValue> item = toReservationItem(reservationId, reservationRecord);
 
             logger.log("Item: " + item);
-            table.putItem(item);
+            final ReservationIntervalIndex.Slot slot = new ReservationIntervalIndex.Slot(
+                    ReservationIntervalIndex.toMinuteOfDay(reservationRecord.slotTimeStart),
+                    ReservationIntervalIndex.toMinuteOfDay(reservationRecord.slotTimeEnd));
+            // the index only rejects known overlaps; the guard item of the day decides under concurrent bookings
+            if (!reservationIndex.reserve(tableNumber, date, slot, slotsLoader, () -> reservationDays.book(
+                    tableNumber, date, slot, reservationsDBTableName, item, this::getIndexedSlots))) {
+                logger.log("ERROR: reservation overlaps an existing one");
+                return buildErrorResponse("Invalid reservation. Free slots for table %d on %s: %s".formatted(
+                        tableNumber, date, reservationIndex.freeSlots(tableNumber, date, this::getReservedSlots)));
+            }
 
             Map<String, String> response = Map.of("reservationId", reservationId);
             return buildResponse(SC_OK, gson.toJson(response));
@@ -106,60 +133,105 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
         }
     }
 
-    private List<ReservationRecord> getReservations() {
-        ScanRequest scanRequest = new ScanRequest().withTableName(reservationsDBTableName);
-        ScanResult result = client.scan(scanRequest);
-
-        return result.getItems().stream()
-                .map(item ->
-                        new ReservationRecord(
-                                Integer.valueOf(item.get("tableNumber").getN()),
-                                item.get("clientName").getS(),
-                                item.get("phoneNumber").getS(),
-                                item.get("date").getS(),
-                                item.get("slotTimeStart").getS(),
-                                item.get("slotTimeEnd").getS()))
-                .collect(Collectors.toList());
+    /**
+     * Reads only the bookings of one table for one day through the tableNumber-date GSI.
+     */
+    private CompletableFuture<List<Map<String, AttributeValue>>> queryReservations(Integer tableNumber, String date) {
+        return asyncDynamoDB.queryAll(new QueryRequest()
+                .withTableName(reservationsDBTableName)
+                .withIndexName(RESERVATIONS_TABLE_DATE_INDEX)
+                .withKeyConditionExpression("tableNumber = :tableNumber AND #date = :date")
+                .withExpressionAttributeNames(Map.of("#date", "date"))
+                .withExpressionAttributeValues(Map.of(
+                        ":tableNumber", new AttributeValue().withN(String.valueOf(tableNumber)),
+                        ":date", new AttributeValue(date))));
     }
 
-    private List<Integer> getTableNumbers() {
-        ScanRequest scanRequest = new ScanRequest().withTableName(tablesDBTableName);
-        ScanResult result = client.scan(scanRequest);
+    /**
+     * Reads the day's guard item consistently; days without one, booked before it existed, fall back to the GSI.
+     */
+    private CompletableFuture<List<ReservationIntervalIndex.Slot>> loadReservedSlots(Integer tableNumber, String date) {
+        return asyncDynamoDB.getItem(reservationDays.getRequest(tableNumber, date)).thenCompose(item -> {
+            final List<ReservationIntervalIndex.Slot> slots = ReservationDays.toSlots(item);
+            return slots != null
+                    ? CompletableFuture.completedFuture(slots)
+                    : queryReservations(tableNumber, date).thenApply(this::toSlots);
+        });
+    }
 
-        return result.getItems().stream()
-                .map(item -> Integer.valueOf(item.get("number").getN()))
-                .collect(Collectors.toList());
+    private List<ReservationIntervalIndex.Slot> getReservedSlots(Integer tableNumber, String date) {
+        return AsyncDynamoDB.join(loadReservedSlots(tableNumber, date));
     }
 
-    public APIGatewayProxyResponseEvent handleTablesGet(APIGatewayProxyRequestEvent requestEvent) {
-        logger.log(">> handleTablesGet");
+    private List<ReservationIntervalIndex.Slot> getIndexedSlots(Integer tableNumber, String date) {
+        return toSlots(AsyncDynamoDB.join(queryReservations(tableNumber, date)));
+    }
 
-        try {
-            ScanRequest scanRequest = new ScanRequest().withTableName(tablesDBTableName);
-            ScanResult result = client.scan(scanRequest);
+    private List<ReservationIntervalIndex.Slot> toSlots(List<Map<String, AttributeValue>> items) {
+        List<ReservationIntervalIndex.Slot> slots = new ArrayList<>();
+        for (Map<String, AttributeValue> item : items) {
+            final ReservationRecord reservation = toReservationRecord(item);
+            try {
+                slots.add(new ReservationIntervalIndex.Slot(
+                        ReservationIntervalIndex.toMinuteOfDay(reservation.slotTimeStart),
+                        ReservationIntervalIndex.toMinuteOfDay(reservation.slotTimeEnd)));
+            } catch (IllegalArgumentException e) {
+                logger.log("WARN: skipping reservation with invalid slot %s".formatted(reservation));
+            }
+        }
+        return slots;
+    }
 
-            ArrayList<Map<String, Object>> tables = new ArrayList<>();
-            for (Map<String, AttributeValue> item : result.getItems()) {
-                logger.log("Table item: %s".formatted(item));
+    private boolean tableExists(Integer tableNumber) {
+        if (tablesCatalog.get().byNumber().containsKey(tableNumber)) {
+            return true;
+        }
 
-                Map<String, Object> itemValues = new HashMap<>();
-                itemValues.put("id", Integer.valueOf(item.get("id").getS()));
-                itemValues.put("number", Integer.valueOf(item.get("number").getN()));
-                itemValues.put("places", Integer.valueOf(item.get("places").getN()));
-                itemValues.put("isVip", item.get("isVip").getBOOL());
+        // the table may have been added after the catalog snapshot was taken
+        QueryRequest queryRequest = new QueryRequest()
+                .withTableName(tablesDBTableName)
+                .withIndexName(TABLES_NUMBER_INDEX)
+                .withKeyConditionExpression("#number = :number")
+                .withExpressionAttributeNames(Map.of("#number", "number"))
+                .withExpressionAttributeValues(Map.of(":number", new AttributeValue().withN(String.valueOf(tableNumber))))
+                .withSelect(Select.COUNT)
+                .withLimit(1);
+
+        return client.query(queryRequest).getCount() > 0;
+    }
 
-                if (item.get("minOrder") != null) {
-                    itemValues.put("minOrder", Integer.valueOf(item.get("minOrder").getN()));
-                }
+    private static Map<String, AttributeValue> toReservationItem(String reservationId, ReservationRecord reservationRecord) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", new AttributeValue(reservationId));
+        item.put("tableNumber", new AttributeValue().withN(String.valueOf(reservationRecord.tableNumber)));
+        item.put("clientName", new AttributeValue(reservationRecord.clientName));
+        item.put("phoneNumber", new AttributeValue(reservationRecord.phoneNumber));
+        item.put("date", new AttributeValue(reservationRecord.date));
+        item.put("slotTimeStart", new AttributeValue(reservationRecord.slotTimeStart));
+        item.put("slotTimeEnd", new AttributeValue(reservationRecord.slotTimeEnd));
+        return item;
+    }
 
-                tables.add(itemValues);
-            }
+    private static ReservationRecord toReservationRecord(Map<String, AttributeValue> item) {
+        return new ReservationRecord(
+                Integer.valueOf(item.get("tableNumber").getN()),
+                item.get("clientName").getS(),
+                item.get("phoneNumber").getS(),
+                item.get("date").getS(),
+                item.get("slotTimeStart").getS(),
+                item.get("slotTimeEnd").getS());
+    }
 
-            Map<String, Object[]> response = Map.of(
-                    "tables", tables.toArray()
-            );
+    public APIGatewayProxyResponseEvent handleTablesGet(APIGatewayProxyRequestEvent requestEvent) {
+        logger.log(">> handleTablesGet");
 
-            return buildResponse(SC_OK, gson.toJson(response));
+        try {
+            final String body = isPageRequest(requestEvent)
+                    ? writeList("tables", tablesDBTableName, requestEvent, DynamoDBHandler::writeTable)
+                    : ListResponseWriter.write("tables", writer ->
+                            tablesCatalog.get().items().forEach(item -> writeTable(writer, item)));
+
+            return buildResponse(SC_OK, body);
         } catch (Exception e) {
             logger.log("ERROR: %s".formatted(Arrays.asList(e.getStackTrace())));
             logger.log("ERROR: Get item failed. %s".formatted(e.getMessage()), LogLevel.ERROR);
@@ -167,13 +239,89 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
         }
     }
 
+    /**
+     * Writes the whole table, or a single page of it when the request carries {@code limit} or {@code nextToken}.
+     */
+    private String writeList(String listName, String tableName, APIGatewayProxyRequestEvent requestEvent,
+                             BiConsumer<JsonWriter, Map<String, AttributeValue>> rowWriter) {
+        final Map<String, String> queryParameters = Optional.ofNullable(requestEvent.getQueryStringParameters())
+                .orElse(Map.of());
+        final String limit = queryParameters.get("limit");
+        final String nextToken = queryParameters.get("nextToken");
+
+        if (limit == null && nextToken == null) {
+            return ListResponseWriter.write(listName, writer ->
+                    scanner.scan(tableName, item -> item, item -> rowWriter.accept(writer, item)));
+        }
+
+        final int pageSize = parsePageLimit(limit);
+        final Map<String, AttributeValue> exclusiveStartKey = PageToken.decode(nextToken);
+        return ListResponseWriter.writePage(listName, writer -> PageToken.encode(
+                scanner.scanPage(tableName, pageSize, exclusiveStartKey, item -> rowWriter.accept(writer, item))));
+    }
+
+    private boolean isPageRequest(APIGatewayProxyRequestEvent requestEvent) {
+        final Map<String, String> queryParameters = requestEvent.getQueryStringParameters();
+        return queryParameters != null
+                && (queryParameters.containsKey("limit") || queryParameters.containsKey("nextToken"));
+    }
+
+    private int parsePageLimit(String limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_LIMIT;
+        }
+        try {
+            int value = Integer.parseInt(limit);
+            if (value > 0 && value <= MAX_PAGE_LIMIT) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("limit must be between 1 and %d".formatted(MAX_PAGE_LIMIT));
+    }
+
+    private static void writeTable(JsonWriter writer, Map<String, AttributeValue> item) {
+        try {
+            writer.beginObject()
+                    .name("id").value(Integer.parseInt(item.get("id").getS()))
+                    .name("number").value(Integer.parseInt(item.get("number").getN()))
+                    .name("places").value(Integer.parseInt(item.get("places").getN()))
+                    .name("isVip").value(item.get("isVip").getBOOL());
+            if (item.get("minOrder") != null) {
+                writer.name("minOrder").value(Integer.parseInt(item.get("minOrder").getN()));
+            }
+            writer.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeReservation(JsonWriter writer, Map<String, AttributeValue> item) {
+        try {
+            writer.beginObject()
+                    .name("tableNumber").value(Integer.parseInt(item.get("tableNumber").getN()))
+                    .name("clientName").value(item.get("clientName").getS())
+                    .name("phoneNumber").value(item.get("phoneNumber").getS())
+                    .name("date").value(item.get("date").getS())
+                    .name("slotTimeStart").value(item.get("slotTimeStart").getS())
+                    .name("slotTimeEnd").value(item.get("slotTimeEnd").getS())
+                    .endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public APIGatewayProxyResponseEvent handleTablesByIdGet(APIGatewayProxyRequestEvent requestEvent) {
         logger.log(">> handleTablesByIdGet");
 
         final String tableId = requestEvent.getPathParameters().get("tableId");
-        Table table = dynamoDB.getTable(tablesDBTableName);
         try {
-            Item item = table.getItem(new PrimaryKey("id", tableId));
+            final Map<String, AttributeValue> cachedItem = tablesCatalog.get().byId().get(tableId);
+            Item item = ItemUtils.toItem(cachedItem != null
+                    ? cachedItem
+                    : AsyncDynamoDB.join(asyncDynamoDB.getItem(
+                            new GetItemRequest(tablesDBTableName, Map.of("id", new AttributeValue(tableId))))));
 
             Map<String, Object> response = new HashMap<>();
             response.put("id", Integer.valueOf(item.getString("id")));
@@ -198,8 +346,6 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
 
         Table table = dynamoDB.getTable(tablesDBTableName);
         try {
-            final List<Integer> tableNumbers = getTableNumbers();
-            logger.log("tableIds: " + tableNumbers);
             if (!validatePostTablesRequest(tableRecord)) {
                 logger.log("ERROR: invalid table info");
                 return buildErrorResponse("Invalid table info");
@@ -218,6 +364,7 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
             }
             logger.log("Item: " + item);
             table.putItem(item);
+            tablesCatalog.invalidate();
 
             Map<String, Integer> response = Map.of("id", Integer.valueOf(tableId));
             return buildResponse(SC_OK, gson.toJson(response));
@@ -229,6 +376,65 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
         }
     }
 
+    public APIGatewayProxyResponseEvent handleTablesBatchPost(APIGatewayProxyRequestEvent requestEvent) {
+        logger.log(">> handleTablesBatchPost");
+
+        try {
+            final TableRecord[] tableRecords = gson.fromJson(requestEvent.getBody(), TableRecord[].class);
+            if (tableRecords == null || tableRecords.length == 0 || tableRecords.length > MAX_TABLES_BATCH_SIZE) {
+                return buildErrorResponse("Table batch must contain 1 to %d tables".formatted(MAX_TABLES_BATCH_SIZE));
+            }
+
+            final BatchItemResult[] results = new BatchItemResult[tableRecords.length];
+            final List<Map<String, AttributeValue>> items = new ArrayList<>();
+            final List<Integer> itemPositions = new ArrayList<>();
+            final Set<Integer> batchIds = new HashSet<>();
+            final Set<Integer> batchNumbers = new HashSet<>();
+
+            for (int i = 0; i < tableRecords.length; i++) {
+                final TableRecord tableRecord = tableRecords[i];
+                if (tableRecord == null || !validatePostTablesRequest(tableRecord)) {
+                    results[i] = BatchItemResult.invalid(i, tableRecord == null ? null : tableRecord.id, "Invalid table info");
+                } else if (!batchIds.add(tableRecord.id) || !batchNumbers.add(tableRecord.number)) {
+                    results[i] = BatchItemResult.invalid(i, tableRecord.id, "Duplicate id or number in batch");
+                } else {
+                    items.add(toTableItem(tableRecord));
+                    itemPositions.add(i);
+                }
+            }
+
+            if (!items.isEmpty()) {
+                final String[] errors = batchWriter.putAll(tablesDBTableName, items);
+                for (int i = 0; i < errors.length; i++) {
+                    final int position = itemPositions.get(i);
+                    results[position] = errors[i] == null
+                            ? BatchItemResult.created(position, tableRecords[position].id)
+                            : BatchItemResult.failed(position, tableRecords[position].id, errors[i]);
+                }
+                tablesCatalog.invalidate();
+            }
+
+            Map<String, BatchItemResult[]> response = Map.of("results", results);
+            return buildResponse(SC_OK, gson.toJson(response));
+        } catch (Exception e) {
+            logger.log("ERROR: %s".formatted(Arrays.asList(e.getStackTrace())));
+            logger.log("ERROR: Create items failed. %s".formatted(e.getMessage()), LogLevel.ERROR);
+            return buildErrorResponse(e.getMessage());
+        }
+    }
+
+    private static Map<String, AttributeValue> toTableItem(TableRecord tableRecord) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", new AttributeValue(String.valueOf(tableRecord.id)));
+        item.put("number", new AttributeValue().withN(String.valueOf(tableRecord.number)));
+        item.put("places", new AttributeValue().withN(String.valueOf(tableRecord.places)));
+        item.put("isVip", new AttributeValue().withBOOL(tableRecord.isVip));
+        if (tableRecord.minOrder != null) {
+            item.put("minOrder", new AttributeValue().withN(String.valueOf(tableRecord.minOrder)));
+        }
+        return item;
+    }
+
     private boolean validatePostTablesRequest(TableRecord request) {
         if (request.id != null
                 && request.number != null
@@ -241,15 +447,13 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
         return false;
     }
 
-    private boolean validatePostReservationsRequest(ReservationRecord request, List<Integer> tableIds, List<ReservationRecord> reservations) {
+    private boolean validatePostReservationsRequest(ReservationRecord request) {
         if (request.tableNumber != null
                 && request.clientName != null
                 && request.phoneNumber != null
                 && request.date != null
                 && request.slotTimeStart != null
                 && request.slotTimeEnd != null
-                && tableIds.contains(request.tableNumber)
-                && noOverlap(request, reservations)
         ) {
             return true;
         }
@@ -257,25 +461,6 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
         return false;
     }
 
-    private boolean noOverlap(ReservationRecord reservation, List<ReservationRecord> reservations) {
-        Integer tableNumber = reservation.tableNumber;
-        String date = reservation.date;
-        String startTime = reservation.slotTimeStart;
-        String endTime = reservation.slotTimeEnd;
-
-        for (ReservationRecord r : reservations) {
-            if (Objects.equals(r.tableNumber, tableNumber) && Objects.equals(r.date, date)) {
-                if (!(StringUtils.compare(r.slotTimeStart, endTime) >= 0
-                        || StringUtils.compare(r.slotTimeEnd, startTime) <= 0)) {
-                    return false;
-                }
-            }
-        }
-
-
-        return true;
-    }
-
     /**
      * {
      * "id": // int
@@ -288,6 +473,28 @@ public class DynamoDBHandler extends AbstractRequestHandlers {
     private record TableRecord(Integer id, Integer number, Integer places, Boolean isVip, Integer minOrder) {
     }
 
+    /**
+     * {
+     * "index": // int, position of the table in the request array
+     * "id": // int, table id
+     * "status": // CREATED, INVALID or FAILED
+     * "message": // optional. string, reason of INVALID or FAILED
+     * }
+     */
+    private record BatchItemResult(int index, Integer id, String status, String message) {
+        static BatchItemResult created(int index, Integer id) {
+            return new BatchItemResult(index, id, "CREATED", null);
+        }
+
+        static BatchItemResult invalid(int index, Integer id, String message) {
+            return new BatchItemResult(index, id, "INVALID", message);
+        }
+
+        static BatchItemResult failed(int index, Integer id, String message) {
+            return new BatchItemResult(index, id, "FAILED", message);
+        }
+    }
+
     /**
      * {
      * "tableNumber": // int, number of the table
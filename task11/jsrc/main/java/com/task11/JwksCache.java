@@ -0,0 +1,169 @@
+package com.task11;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RSA signing keys of a JWKS endpoint, held in memory by key id.
+ * <p>
+ * The key set is loaded on first use and refreshed in the background every {@link #REFRESH_INTERVAL_MILLIS}.
+ * A token signed with an unknown key id triggers a refresh right away, at most once per
+ * {@link #MIN_FORCED_REFRESH_INTERVAL_MILLIS}, so rotated keys are picked up without letting bad tokens hammer the endpoint.
+ */
+public class JwksCache {
+    private static final long REFRESH_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long MIN_FORCED_REFRESH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+    private static final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private static final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LambdaLogger logger = LambdaRuntime.getLogger();
+    private final URI jwksUri;
+    private final ScheduledFuture<?> scheduledRefresh;
+
+    private volatile Map<String, RSAPublicKey> keys;
+    private volatile long loadedAt;
+
+    public JwksCache(String jwksUrl) {
+        this.jwksUri = URI.create(jwksUrl);
+        scheduledRefresh = refresher.scheduleWithFixedDelay(this::refreshQuietly,
+                REFRESH_INTERVAL_MILLIS, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the key with the given id, or null if the endpoint does not publish it
+     * @throws UnavailableException if the key set has to be loaded and the endpoint cannot be read
+     */
+    public RSAPublicKey get(String keyId) {
+        Map<String, RSAPublicKey> current = keys;
+        if (current == null) {
+            current = refresh(0);
+        }
+        RSAPublicKey key = current.get(keyId);
+        if (key == null && System.currentTimeMillis() - loadedAt >= MIN_FORCED_REFRESH_INTERVAL_MILLIS) {
+            key = refresh(loadedAt).get(keyId);
+        }
+        return key;
+    }
+
+    /**
+     * Loads the key set if it is not loaded yet. Used before a checkpoint.
+     */
+    void prime() {
+        if (keys == null) {
+            refresh(0);
+        }
+    }
+
+    /**
+     * Stops the background refresh, e.g. when the user pool and so the issuer changed.
+     */
+    public void close() {
+        scheduledRefresh.cancel(false);
+    }
+
+    /**
+     * Reloads the key set unless another thread already reloaded it after {@code seenLoadedAt}.
+     */
+    private synchronized Map<String, RSAPublicKey> refresh(long seenLoadedAt) {
+        if (keys != null && loadedAt != seenLoadedAt) {
+            return keys;
+        }
+        keys = load();
+        loadedAt = System.currentTimeMillis();
+        return keys;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh(loadedAt);
+        } catch (RuntimeException e) {
+            // keep serving the current keys; the next request with an unknown key id retries
+            logger.log("WARN: JWKS refresh from %s failed: %s".formatted(jwksUri, e.getMessage()));
+        }
+    }
+
+    private Map<String, RSAPublicKey> load() {
+        final String body;
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(jwksUri).timeout(TIMEOUT).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new UnavailableException("JWKS %s returned %d".formatted(jwksUri, response.statusCode()), null);
+            }
+            body = response.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnavailableException("Interrupted while loading JWKS " + jwksUri, e);
+        } catch (java.io.IOException e) {
+            throw new UnavailableException("Cannot load JWKS %s: %s".formatted(jwksUri, e.getMessage()), e);
+        }
+
+        Map<String, RSAPublicKey> loaded = new HashMap<>();
+        try {
+            for (JsonElement element : JsonParser.parseString(body).getAsJsonObject().getAsJsonArray("keys")) {
+                JsonObject jwk = element.getAsJsonObject();
+                if (!"RSA".equals(stringOrNull(jwk, "kty")) || "enc".equals(stringOrNull(jwk, "use"))) {
+                    continue;
+                }
+                loaded.put(jwk.get("kid").getAsString(), toPublicKey(jwk));
+            }
+        } catch (RuntimeException e) {
+            throw new UnavailableException("Invalid JWKS %s: %s".formatted(jwksUri, e.getMessage()), e);
+        }
+        logger.log("Loaded %d signing keys from %s".formatted(loaded.size(), jwksUri));
+        return Map.copyOf(loaded);
+    }
+
+    private static RSAPublicKey toPublicKey(JsonObject jwk) {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        BigInteger modulus = new BigInteger(1, decoder.decode(jwk.get("n").getAsString()));
+        BigInteger exponent = new BigInteger(1, decoder.decode(jwk.get("e").getAsString()));
+        try {
+            return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid RSA key " + jwk.get("kid"), e);
+        }
+    }
+
+    private static String stringOrNull(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    /**
+     * The key set cannot be read, so no token can be checked. Answered with 503, since the client is not at fault.
+     */
+    public static class UnavailableException extends RuntimeException {
+        public UnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
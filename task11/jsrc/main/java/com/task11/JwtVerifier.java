@@ -0,0 +1,180 @@
+package com.task11;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Verifies Cognito-issued RS256 tokens in process: signature against the user pool's JWKS, expiry, issuer
+ * and audience ({@code aud} of an id token, {@code client_id} of an access token).
+ * <p>
+ * The Lambda URL has no authorizer in front of it, so the handler checks tokens itself. Keys come from a
+ * {@link JwksCache}; tokens that passed are remembered until they expire, so a client repeating its token
+ * pays a map lookup instead of an RSA verification.
+ */
+public class JwtVerifier {
+    private static final int MAX_CACHED_TOKENS = 1000;
+    private static final long CLOCK_SKEW_SECONDS = 30;
+
+    private static final ThreadLocal<Signature> signatures = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("SHA256withRSA");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Supplier<CognitoIdResolver.CognitoIds> cognitoIds;
+    private final String region;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private volatile Issuer issuer;
+
+    public JwtVerifier(Supplier<CognitoIdResolver.CognitoIds> cognitoIds, String region) {
+        this.cognitoIds = cognitoIds;
+        this.region = region;
+    }
+
+    /**
+     * Loads the signing keys ahead of the first request. Used before a checkpoint.
+     */
+    void prime() {
+        currentIssuer().jwks.prime();
+    }
+
+    /**
+     * @return the verified claims of the token
+     * @throws UnauthenticatedException        if the token is malformed, not signed by the user pool, expired
+     *                                         or issued for another client
+     * @throws JwksCache.UnavailableException if the signing keys cannot be loaded
+     */
+    public VerifiedToken verify(String token) {
+        final long nowSeconds = System.currentTimeMillis() / 1000;
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (cached.expiresAt() > nowSeconds - CLOCK_SKEW_SECONDS) {
+                return cached;
+            }
+            verifiedTokens.remove(token);
+        }
+
+        final Issuer current = currentIssuer();
+        final int headerEnd = token.indexOf('.');
+        final int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (headerEnd <= 0 || payloadEnd <= headerEnd || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new UnauthenticatedException("Malformed token");
+        }
+
+        final JsonObject header = decodeJson(token.substring(0, headerEnd));
+        if (!"RS256".equals(stringOrNull(header, "alg"))) {
+            throw new UnauthenticatedException("Unsupported algorithm " + stringOrNull(header, "alg"));
+        }
+        final String keyId = stringOrNull(header, "kid");
+        final RSAPublicKey key = keyId == null ? null : current.jwks.get(keyId);
+        if (key == null) {
+            throw new UnauthenticatedException("Unknown signing key " + keyId);
+        }
+        if (!isSignatureValid(key, token, payloadEnd)) {
+            throw new UnauthenticatedException("Invalid signature");
+        }
+
+        final JsonObject claims = decodeJson(token.substring(headerEnd + 1, payloadEnd));
+        final JsonElement exp = claims.get("exp");
+        if (exp == null || !exp.isJsonPrimitive() || !exp.getAsJsonPrimitive().isNumber()) {
+            throw new UnauthenticatedException("Token without expiry");
+        }
+        if (exp.getAsLong() <= nowSeconds - CLOCK_SKEW_SECONDS) {
+            throw new UnauthenticatedException("Token expired");
+        }
+        if (!current.url.equals(stringOrNull(claims, "iss"))) {
+            throw new UnauthenticatedException("Unexpected issuer " + stringOrNull(claims, "iss"));
+        }
+        final String tokenUse = stringOrNull(claims, "token_use");
+        final String audience = "access".equals(tokenUse) ? stringOrNull(claims, "client_id") : stringOrNull(claims, "aud");
+        if (!("id".equals(tokenUse) || "access".equals(tokenUse)) || !current.clientId.equals(audience)) {
+            throw new UnauthenticatedException("Token not issued for client %s".formatted(current.clientId));
+        }
+
+        VerifiedToken verified = new VerifiedToken(stringOrNull(claims, "sub"), stringOrNull(claims, "email"),
+                exp.getAsLong());
+        remember(token, verified, nowSeconds);
+        return verified;
+    }
+
+    private Issuer currentIssuer() {
+        final CognitoIdResolver.CognitoIds ids = cognitoIds.get();
+        Issuer current = issuer;
+        if (current != null && current.ids.equals(ids)) {
+            return current;
+        }
+        synchronized (this) {
+            current = issuer;
+            if (current == null || !current.ids.equals(ids)) {
+                if (current != null) {
+                    current.jwks.close();
+                }
+                String url = "https://cognito-idp.%s.amazonaws.com/%s".formatted(region, ids.userPoolId());
+                current = new Issuer(ids, url, ids.clientId(), new JwksCache(url + "/.well-known/jwks.json"));
+                verifiedTokens.clear();
+                issuer = current;
+            }
+            return current;
+        }
+    }
+
+    private void remember(String token, VerifiedToken verified, long nowSeconds) {
+        if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+            verifiedTokens.values().removeIf(cached -> cached.expiresAt() <= nowSeconds);
+            if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(token, verified);
+    }
+
+    private static boolean isSignatureValid(RSAPublicKey key, String token, int signedEnd) {
+        try {
+            Signature signature = signatures.get();
+            signature.initVerify(key);
+            signature.update(token.substring(0, signedEnd).getBytes(StandardCharsets.US_ASCII));
+            return signature.verify(Base64.getUrlDecoder().decode(token.substring(signedEnd + 1)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static JsonObject decodeJson(String part) {
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+            return JsonParser.parseString(json).getAsJsonObject();
+        } catch (RuntimeException e) {
+            throw new UnauthenticatedException("Malformed token", e);
+        }
+    }
+
+    private static String stringOrNull(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        if (value == null || value.isJsonNull()) {
+            return null;
+        }
+        if (!value.isJsonPrimitive()) {
+            throw new UnauthenticatedException("Malformed token field " + name);
+        }
+        return value.getAsString();
+    }
+
+    public record VerifiedToken(String subject, String email, long expiresAt) {
+    }
+
+    private record Issuer(CognitoIdResolver.CognitoIds ids, String url, String clientId, JwksCache jwks) {
+    }
+}
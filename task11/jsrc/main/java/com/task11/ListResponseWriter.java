@@ -0,0 +1,109 @@
+package com.task11;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes a compact {@code {"<name>": [...], "nextToken": "..."}} response body row by row, without building per-row maps.
+ * Output goes into a per-thread buffer that is reused between responses; buffers that grew past
+ * {@link #MAX_RETAINED_CAPACITY} are dropped so one large response does not pin memory for the container's lifetime.
+ */
+public final class ListResponseWriter {
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private static final ThreadLocal<StringBuilder> buffers =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+    private ListResponseWriter() {
+    }
+
+    public static String write(String listName, Rows rows) {
+        return writePage(listName, writer -> {
+            rows.writeTo(writer);
+            return null;
+        });
+    }
+
+    /**
+     * Writes one page of rows followed by the {@code nextToken} returned by the page, if any.
+     */
+    public static String writePage(String listName, Page page) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        try {
+            JsonWriter writer = new JsonWriter(new StringBuilderWriter(buffer));
+            writer.beginObject().name(listName).beginArray();
+            String nextToken = page.writeTo(writer);
+            writer.endArray();
+            if (nextToken != null) {
+                writer.name("nextToken").value(nextToken);
+            }
+            writer.endObject();
+            return buffer.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                buffers.remove();
+            }
+        }
+    }
+
+    /**
+     * Emits the array elements. Writers that are driven from callbacks which cannot throw
+     * may wrap {@link IOException} in {@link UncheckedIOException}.
+     */
+    @FunctionalInterface
+    public interface Rows {
+        void writeTo(JsonWriter writer) throws IOException;
+    }
+
+    /**
+     * Emits the array elements of one page and returns the token of the next page, or null on the last page.
+     */
+    @FunctionalInterface
+    public interface Page {
+        String writeTo(JsonWriter writer) throws IOException;
+    }
+
+    private static final class StringBuilderWriter extends Writer {
+        private final StringBuilder buffer;
+
+        private StringBuilderWriter(StringBuilder buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(int c) {
+            buffer.append((char) c);
+        }
+
+        @Override
+        public void write(String str, int offset, int length) {
+            buffer.append(str, offset, offset + length);
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            buffer.append(csq);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.task11;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opaque cursor for paged list endpoints. The token is the URL-safe Base64 of a DynamoDB key
+ * ({@code LastEvaluatedKey} / {@code ExclusiveStartKey}) in its typed JSON form, e.g. {@code {"id":{"S":"42"}}}.
+ */
+public final class PageToken {
+
+    private PageToken() {
+    }
+
+    public static String encode(Map<String, AttributeValue> key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, AttributeValue> entry : key.entrySet()) {
+            JsonObject value = new JsonObject();
+            if (entry.getValue().getS() != null) {
+                value.addProperty("S", entry.getValue().getS());
+            } else if (entry.getValue().getN() != null) {
+                value.addProperty("N", entry.getValue().getN());
+            } else {
+                throw new IllegalArgumentException("Unsupported key attribute type: %s".formatted(entry.getKey()));
+            }
+            json.add(entry.getKey(), value);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded key, or null for a missing token
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode(Map)}
+     */
+    public static Map<String, AttributeValue> decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            Map<String, AttributeValue> key = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : JsonParser.parseString(json).getAsJsonObject().entrySet()) {
+                JsonObject value = entry.getValue().getAsJsonObject();
+                if (value.has("S")) {
+                    key.put(entry.getKey(), new AttributeValue().withS(value.get("S").getAsString()));
+                } else if (value.has("N")) {
+                    key.put(entry.getKey(), new AttributeValue().withN(value.get("N").getAsString()));
+                } else {
+                    throw new IllegalArgumentException("Invalid nextToken");
+                }
+            }
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Invalid nextToken");
+            }
+            return key;
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IllegalArgumentException("Invalid nextToken", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.task11;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory token buckets by key, e.g. per user or per client address.
+ * <p>
+ * Buckets are spread over {@link #STRIPES} independently locked maps, so concurrent callers only contend when their
+ * keys land in the same stripe. Each stripe keeps its buckets in access order and drops the least recently used one when
+ * it grows past its limit, so memory stays bounded during bursts of distinct keys while the keys that keep calling, and
+ * so stay throttled, keep their buckets.
+ */
+public class RateLimiter {
+    private static final int STRIPES = 64;
+    private static final int MAX_BUCKETS_PER_STRIPE = 1024;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param capacity     requests allowed in a burst
+     * @param refillPeriod time to earn one more request
+     */
+    public RateLimiter(int capacity, long refillPeriod, TimeUnit unit) {
+        this.capacity = capacity;
+        this.tokensPerNano = 1.0 / unit.toNanos(refillPeriod);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes a token from the key's bucket.
+     *
+     * @return 0 if the call is allowed, otherwise the milliseconds until the next token is available
+     */
+    public long tryAcquire(String key) {
+        final Stripe stripe = stripes[(key.hashCode() & Integer.MAX_VALUE) % STRIPES];
+        final long now = System.nanoTime();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.refill(now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil((1 - bucket.tokens) / tokensPerNano)));
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                // the least recently used key has had the longest time to refill
+                return size() > MAX_BUCKETS_PER_STRIPE;
+            }
+        };
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
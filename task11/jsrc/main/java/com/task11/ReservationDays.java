@@ -0,0 +1,151 @@
+package com.task11;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Authoritative booked slots per (tableNumber, date), one guard item per day in the reservation days table.
+ * <p>
+ * A booking reads the day's guard item with a consistent read, checks the new slot against it and then writes
+ * the reservation and the guard item, extended by the slot and with its version incremented, in one transaction
+ * that is conditioned on the version it read. Two containers booking the same day therefore cannot both commit:
+ * the second one fails its condition, re-reads the day and checks again. {@link ReservationIntervalIndex} stays
+ * in front of this as a fast reject of slots that are known to be taken.
+ * <p>
+ * A day without a guard item, i.e. one whose bookings all predate this table, is seeded from the
+ * tableNumber-date GSI on its first booking.
+ */
+public class ReservationDays {
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final AmazonDynamoDB client;
+    private final String tableName;
+
+    public ReservationDays(AmazonDynamoDB client, String tableName) {
+        this.client = client;
+        this.tableName = tableName;
+    }
+
+    /**
+     * Consistent read of the day's guard item, for callers that issue it themselves, e.g. through {@link AsyncDynamoDB}.
+     */
+    public GetItemRequest getRequest(int tableNumber, String date) {
+        return new GetItemRequest()
+                .withTableName(tableName)
+                .withKey(Map.of("id", new AttributeValue(dayId(tableNumber, date))))
+                .withConsistentRead(true);
+    }
+
+    /**
+     * @return the booked slots of a guard item read with {@link #getRequest}, null if the day has none yet
+     */
+    public static List<ReservationIntervalIndex.Slot> toSlots(Map<String, AttributeValue> item) {
+        if (item == null || item.isEmpty()) {
+            return null;
+        }
+        final List<ReservationIntervalIndex.Slot> slots = new ArrayList<>();
+        for (AttributeValue value : item.get("slots").getL()) {
+            final String[] times = value.getS().split("-");
+            slots.add(new ReservationIntervalIndex.Slot(
+                    ReservationIntervalIndex.toMinuteOfDay(times[0]),
+                    ReservationIntervalIndex.toMinuteOfDay(times[1])));
+        }
+        return slots;
+    }
+
+    /**
+     * Writes the reservation item unless its slot overlaps a booking of the day.
+     *
+     * @param legacyLoader reads the day's bookings from the reservations table, used when there is no guard item yet
+     * @return false if the slot overlaps an existing booking
+     * @throws IllegalStateException if the day kept changing under concurrent bookings
+     */
+    public boolean book(int tableNumber, String date, ReservationIntervalIndex.Slot slot,
+                        String reservationsTableName, Map<String, AttributeValue> reservation,
+                        BiFunction<Integer, String, List<ReservationIntervalIndex.Slot>> legacyLoader) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Day day = read(tableNumber, date);
+            if (day == null) {
+                day = new Day(legacyLoader.apply(tableNumber, date), 0);
+            }
+            for (ReservationIntervalIndex.Slot booked : day.slots) {
+                if (booked.start() < slot.end() && slot.start() < booked.end()) {
+                    return false;
+                }
+            }
+
+            final List<ReservationIntervalIndex.Slot> slots = new ArrayList<>(day.slots);
+            slots.add(slot);
+            try {
+                client.transactWriteItems(new TransactWriteItemsRequest().withTransactItems(
+                        new TransactWriteItem().withPut(new Put()
+                                .withTableName(reservationsTableName)
+                                .withItem(reservation)
+                                .withConditionExpression("attribute_not_exists(id)")),
+                        new TransactWriteItem().withPut(toPut(tableNumber, date, slots, day.version))));
+                return true;
+            } catch (TransactionCanceledException e) {
+                if (!isConditionFailure(e)) {
+                    throw e;
+                }
+                // another booking of the day committed first, so its slots are read again
+            }
+        }
+        throw new IllegalStateException("Too many concurrent bookings of table %d on %s".formatted(tableNumber, date));
+    }
+
+    private Put toPut(int tableNumber, String date, List<ReservationIntervalIndex.Slot> slots, long seenVersion) {
+        final List<AttributeValue> slotValues = new ArrayList<>(slots.size());
+        for (ReservationIntervalIndex.Slot slot : slots) {
+            slotValues.add(new AttributeValue(slot.toString()));
+        }
+        final Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", new AttributeValue(dayId(tableNumber, date)));
+        item.put("slots", new AttributeValue().withL(slotValues));
+        item.put("version", new AttributeValue().withN(String.valueOf(seenVersion + 1)));
+
+        final Put put = new Put().withTableName(tableName).withItem(item);
+        return seenVersion == 0
+                ? put.withConditionExpression("attribute_not_exists(id)")
+                : put.withConditionExpression("version = :version")
+                        .withExpressionAttributeValues(Map.of(
+                                ":version", new AttributeValue().withN(String.valueOf(seenVersion))));
+    }
+
+    private Day read(int tableNumber, String date) {
+        final Map<String, AttributeValue> item = client.getItem(getRequest(tableNumber, date)).getItem();
+        final List<ReservationIntervalIndex.Slot> slots = toSlots(item);
+        return slots == null ? null : new Day(slots, Long.parseLong(item.get("version").getN()));
+    }
+
+    private static boolean isConditionFailure(TransactionCanceledException e) {
+        if (e.getCancellationReasons() == null) {
+            return false;
+        }
+        for (CancellationReason reason : e.getCancellationReasons()) {
+            if ("ConditionalCheckFailed".equals(reason.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String dayId(int tableNumber, String date) {
+        return tableNumber + "#" + date;
+    }
+
+    private record Day(List<ReservationIntervalIndex.Slot> slots, long version) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.task11;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Booked slots per (tableNumber, date), kept in the warm container.
+ * Each day holds minute-of-day intervals in primitive arrays sorted by start, plus a running maximum of the ends,
+ * so an overlap check is a single binary search. Days are loaded from DynamoDB on first use and reloaded
+ * once they are older than {@link #DAY_TTL_MILLIS}, which bounds how long bookings made by other containers stay unseen.
+ * The index is only a fast reject: a slot it considers free is still checked by the {@code persist} step of
+ * {@link #reserve}, which has to be authoritative (see {@link ReservationDays}).
+ * <p>
+ * At most once per {@link #DAY_TTL_MILLIS}, a call also evicts the days before today (UTC) and the days unused for
+ * {@link #IDLE_DAY_EVICTION_MILLIS}, so the index does not grow with every date ever booked in a warm container.
+ */
+public class ReservationIntervalIndex {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    private static final long DAY_TTL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    // GSI reads are eventually consistent, so slots written here are kept across reloads for a while
+    private static final long WRITTEN_SLOT_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // an idle day is expired anyway and holds no written slot that is still retained
+    private static final long IDLE_DAY_EVICTION_MILLIS = Math.max(DAY_TTL_MILLIS, WRITTEN_SLOT_RETENTION_MILLIS);
+
+    private final Map<DayKey, DaySlots> days = new ConcurrentHashMap<>();
+    private final AtomicLong nextEvictionAt = new AtomicLong();
+
+    /**
+     * Books the slot unless it overlaps an existing one. The check, {@code persist} and the insert into the index
+     * run under the day's lock, so concurrent bookings of the same table and date in this container are serialized.
+     * {@code persist} returns false when it finds the slot taken by a booking the index did not see yet; the day is
+     * then reloaded on its next use. Nothing is added to the index when {@code persist} fails or throws.
+     *
+     * @return false if the slot overlaps an existing booking
+     */
+    public boolean reserve(int tableNumber, String date, Slot slot,
+                           BiFunction<Integer, String, List<Slot>> loader, BooleanSupplier persist) {
+        evictStaleDays();
+        DaySlots daySlots = days.computeIfAbsent(new DayKey(tableNumber, date), key -> new DaySlots());
+        synchronized (daySlots) {
+            daySlots.lastUsedAt = System.currentTimeMillis();
+            daySlots.refreshIfExpired(tableNumber, date, loader);
+            if (daySlots.overlaps(slot.start, slot.end)) {
+                return false;
+            }
+            if (!persist.getAsBoolean()) {
+                daySlots.expire();
+                return false;
+            }
+            daySlots.insertWritten(slot);
+            return true;
+        }
+    }
+
+    /**
+     * @return true if the day is cached and the next {@link #reserve} or {@link #freeSlots} will not call the loader
+     */
+    public boolean isFresh(int tableNumber, String date) {
+        DaySlots daySlots = days.get(new DayKey(tableNumber, date));
+        return daySlots != null && daySlots.isFresh();
+    }
+
+    /**
+     * Returns the gaps between bookings of the given table and date, in start order.
+     */
+    public List<Slot> freeSlots(int tableNumber, String date, BiFunction<Integer, String, List<Slot>> loader) {
+        evictStaleDays();
+        DaySlots daySlots = days.computeIfAbsent(new DayKey(tableNumber, date), key -> new DaySlots());
+        synchronized (daySlots) {
+            daySlots.lastUsedAt = System.currentTimeMillis();
+            daySlots.refreshIfExpired(tableNumber, date, loader);
+            return daySlots.gaps();
+        }
+    }
+
+    /**
+     * Forgets every cached day, including the slots written by this container.
+     */
+    public void clear() {
+        days.clear();
+    }
+
+    /**
+     * Removes past and idle days. A day that is in use while it is removed only loses its cache entry: the caller
+     * finishes on the removed instance and the next call loads the day again.
+     */
+    private void evictStaleDays() {
+        long now = System.currentTimeMillis();
+        long evictionAt = nextEvictionAt.get();
+        if (now < evictionAt || !nextEvictionAt.compareAndSet(evictionAt, now + DAY_TTL_MILLIS)) {
+            return;
+        }
+        // yyyy-MM-dd dates compare in date order; a date in another format is at worst evicted early and reloaded
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+        days.entrySet().removeIf(entry -> entry.getKey().date().compareTo(today) < 0
+                || now - entry.getValue().lastUsedAt > IDLE_DAY_EVICTION_MILLIS);
+    }
+
+    /**
+     * Parses an "HH:MM" time into minutes since midnight.
+     *
+     * @throws IllegalArgumentException if the time is not a valid "HH:MM" value
+     */
+    public static int toMinuteOfDay(String time) {
+        if (time == null || time.length() != 5 || time.charAt(2) != ':') {
+            throw new IllegalArgumentException("Time must be in HH:MM format: %s".formatted(time));
+        }
+        int hours = digit(time, 0) * 10 + digit(time, 1);
+        int minutes = digit(time, 3) * 10 + digit(time, 4);
+        if (hours > 23 || minutes > 59) {
+            throw new IllegalArgumentException("Time must be in HH:MM format: %s".formatted(time));
+        }
+        return hours * 60 + minutes;
+    }
+
+    public static String toTime(int minuteOfDay) {
+        return "%02d:%02d".formatted(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    private static int digit(String time, int index) {
+        char c = time.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Time must be in HH:MM format: %s".formatted(time));
+        }
+        return c - '0';
+    }
+
+    /**
+     * Half-open interval [start, end) in minutes since midnight.
+     */
+    public record Slot(int start, int end) {
+        public Slot {
+            if (start < 0 || end > MINUTES_PER_DAY || start >= end) {
+                throw new IllegalArgumentException("Invalid slot %d-%d".formatted(start, end));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return toTime(start) + "-" + toTime(end);
+        }
+    }
+
+    private record DayKey(int tableNumber, String date) {
+    }
+
+    private record WrittenSlot(Slot slot, long writtenAt) {
+    }
+
+    private static class DaySlots {
+        private int[] starts = new int[4];
+        private int[] ends = new int[4];
+        private int[] maxEnds = new int[4];
+        private int size;
+        private volatile long loadedAt;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+        private final List<WrittenSlot> writtenSlots = new ArrayList<>();
+
+        boolean isFresh() {
+            return System.currentTimeMillis() - loadedAt < DAY_TTL_MILLIS;
+        }
+
+        void refreshIfExpired(int tableNumber, String date, BiFunction<Integer, String, List<Slot>> loader) {
+            if (isFresh()) {
+                return;
+            }
+            List<Slot> loaded = loader.apply(tableNumber, date);
+            long now = System.currentTimeMillis();
+            size = 0;
+            for (Slot slot : loaded) {
+                insert(slot.start, slot.end);
+            }
+            writtenSlots.removeIf(written -> now - written.writtenAt > WRITTEN_SLOT_RETENTION_MILLIS);
+            for (WrittenSlot written : writtenSlots) {
+                if (!loaded.contains(written.slot)) {
+                    insert(written.slot.start, written.slot.end);
+                }
+            }
+            loadedAt = now;
+        }
+
+        void expire() {
+            loadedAt = 0;
+        }
+
+        void insertWritten(Slot slot) {
+            insert(slot.start, slot.end);
+            writtenSlots.add(new WrittenSlot(slot, System.currentTimeMillis()));
+        }
+
+        boolean overlaps(int start, int end) {
+            int last = countStartsBefore(end) - 1;
+            return last >= 0 && maxEnds[last] > start;
+        }
+
+        void insert(int start, int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                maxEnds = Arrays.copyOf(maxEnds, size * 2);
+            }
+            int position = countStartsBefore(start);
+            System.arraycopy(starts, position, starts, position + 1, size - position);
+            System.arraycopy(ends, position, ends, position + 1, size - position);
+            starts[position] = start;
+            ends[position] = end;
+            size++;
+
+            for (int i = position; i < size; i++) {
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        List<Slot> gaps() {
+            List<Slot> gaps = new ArrayList<>();
+            int free = 0;
+            for (int i = 0; i < size; i++) {
+                if (starts[i] > free) {
+                    gaps.add(new Slot(free, starts[i]));
+                }
+                free = Math.max(free, ends[i]);
+            }
+            if (free < MINUTES_PER_DAY) {
+                gaps.add(new Slot(free, MINUTES_PER_DAY));
+            }
+            return gaps;
+        }
+
+        private int countStartsBefore(int minute) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < minute) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
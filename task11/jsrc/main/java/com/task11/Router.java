@@ -0,0 +1,331 @@
+package com.task11;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Method and path router over a segment trie that is built once. Templates are literal segments and
+ * {@code {name}} parameters, e.g. {@code /tables/{tableId}}; a literal segment wins over a parameter at the same level.
+ * A parameter can be typed as {@code {name:int}}: it then only matches a non-negative int, so a path like
+ * {@code /tables/abc} has no route, and it wins over an untyped parameter at the same level.
+ * <p>
+ * {@link #match} allocates nothing: literal children sit in an open-addressing table keyed by the segment's
+ * {@link String#hashCode()}, which is computed over the path region in place. The cost of a lookup depends on the
+ * number of segments, not on the number of routes. Parameter values are only extracted on request.
+ */
+public final class Router<H> {
+    private static final String[] METHODS = {"GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS"};
+
+    private final Node<H> root;
+
+    private Router(Node<H> root) {
+        this.root = root;
+    }
+
+    public static <H> Builder<H> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return the route for the method and path, or null if there is none
+     */
+    public Route<H> match(String method, String path) {
+        final int methodIndex = methodIndex(method);
+        if (methodIndex < 0 || path == null) {
+            return null;
+        }
+        return root.match(path, path.startsWith("/") ? 1 : 0, methodIndex);
+    }
+
+    private static int methodIndex(String method) {
+        if (method == null) {
+            return -1;
+        }
+        return switch (method) {
+            case "GET" -> 0;
+            case "POST" -> 1;
+            case "PUT" -> 2;
+            case "PATCH" -> 3;
+            case "DELETE" -> 4;
+            case "HEAD" -> 5;
+            case "OPTIONS" -> 6;
+            default -> -1;
+        };
+    }
+
+    private static String[] splitTemplate(String template) {
+        String trimmed = template.startsWith("/") ? template.substring(1) : template;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/", -1);
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    /**
+     * Types of path parameters, in the order they are tried when a path is matched.
+     */
+    public enum ParameterType {
+        INT {
+            @Override
+            boolean accepts(String path, int start, int end) {
+                if (end - start > 10) {
+                    return false;
+                }
+                long value = 0;
+                for (int i = start; i < end; i++) {
+                    char c = path.charAt(i);
+                    if (c < '0' || c > '9') {
+                        return false;
+                    }
+                    value = value * 10 + (c - '0');
+                }
+                return value <= Integer.MAX_VALUE;
+            }
+        },
+        STRING {
+            @Override
+            boolean accepts(String path, int start, int end) {
+                return true;
+            }
+        };
+
+        abstract boolean accepts(String path, int start, int end);
+
+        static ParameterType of(String name) {
+            return switch (name) {
+                case "int" -> INT;
+                case "string" -> STRING;
+                default -> throw new IllegalArgumentException("Unsupported parameter type " + name);
+            };
+        }
+    }
+
+    public static final class Builder<H> {
+        private final Node<H> root = new Node<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @throws IllegalArgumentException if the method or a parameter type is not supported, a segment is empty
+         *                                  or the method and template are already routed
+         */
+        public Builder<H> route(String method, String template, H handler) {
+            final int methodIndex = methodIndex(method);
+            if (methodIndex < 0) {
+                throw new IllegalArgumentException("Unsupported method " + method);
+            }
+
+            Node<H> node = root;
+            List<String> parameterNames = new ArrayList<>();
+            List<ParameterType> parameterTypes = new ArrayList<>();
+            List<Integer> parameterSegments = new ArrayList<>();
+            String[] segments = splitTemplate(template);
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.isEmpty()) {
+                    throw new IllegalArgumentException("Empty segment in " + template);
+                }
+                if (isParameter(segment)) {
+                    String parameter = segment.substring(1, segment.length() - 1);
+                    int colon = parameter.indexOf(':');
+                    ParameterType type = colon < 0 ? ParameterType.STRING : ParameterType.of(parameter.substring(colon + 1));
+                    parameterNames.add(colon < 0 ? parameter : parameter.substring(0, colon));
+                    parameterTypes.add(type);
+                    parameterSegments.add(i);
+                    node = node.parameterChild(type);
+                } else {
+                    node = node.literalChild(segment);
+                }
+            }
+
+            if (node.routes[methodIndex] != null) {
+                throw new IllegalArgumentException("Duplicate route %s %s".formatted(method, template));
+            }
+            node.routes[methodIndex] = new Route<>(METHODS[methodIndex], template, handler,
+                    parameterNames.toArray(new String[0]), parameterTypes.toArray(new ParameterType[0]),
+                    parameterSegments.stream().mapToInt(Integer::intValue).toArray());
+            return this;
+        }
+
+        public Router<H> build() {
+            root.compile();
+            return new Router<>(root);
+        }
+    }
+
+    public static final class Route<H> {
+        private final String method;
+        private final String template;
+        private final H handler;
+        private final String[] parameterNames;
+        private final ParameterType[] parameterTypes;
+        private final int[] parameterSegments;
+
+        private Route(String method, String template, H handler,
+                      String[] parameterNames, ParameterType[] parameterTypes, int[] parameterSegments) {
+            this.method = method;
+            this.template = template;
+            this.handler = handler;
+            this.parameterNames = parameterNames;
+            this.parameterTypes = parameterTypes;
+            this.parameterSegments = parameterSegments;
+        }
+
+        public H handler() {
+            return handler;
+        }
+
+        public String template() {
+            return template;
+        }
+
+        public boolean hasPathParameters() {
+            return parameterNames.length > 0;
+        }
+
+        /**
+         * Extracts the parameter values from a path this route matched.
+         */
+        public Map<String, String> pathParameters(String path) {
+            Map<String, String> parameters = new HashMap<>();
+            int segment = 0;
+            int parameter = 0;
+            int start = path.startsWith("/") ? 1 : 0;
+            while (parameter < parameterNames.length && start <= path.length()) {
+                int end = path.indexOf('/', start);
+                if (end < 0) {
+                    end = path.length();
+                }
+                if (segment == parameterSegments[parameter]) {
+                    parameters.put(parameterNames[parameter++], path.substring(start, end));
+                }
+                segment++;
+                start = end + 1;
+            }
+            return parameters;
+        }
+
+        /**
+         * Value of an {@code int} parameter of a path this route matched. The route only matches paths whose
+         * segment is a valid int, so no further validation is needed.
+         *
+         * @throws IllegalArgumentException if the route has no {@code int} parameter with this name
+         */
+        public int intPathParameter(String path, String name) {
+            for (int parameter = 0; parameter < parameterNames.length; parameter++) {
+                if (parameterNames[parameter].equals(name) && parameterTypes[parameter] == ParameterType.INT) {
+                    return Integer.parseInt(pathParameters(path).get(name));
+                }
+            }
+            throw new IllegalArgumentException("No int parameter %s in %s".formatted(name, template));
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + template;
+        }
+    }
+
+    private static final class Node<H> {
+        @SuppressWarnings("unchecked")
+        private final Route<H>[] routes = new Route[METHODS.length];
+        private Map<String, Node<H>> literalChildren = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        private final Node<H>[] parameterChildren = new Node[ParameterType.values().length];
+
+        // open-addressing table of literal children, filled by compile()
+        private String[] keys;
+        private Node<H>[] children;
+        private int mask;
+
+        Node<H> literalChild(String segment) {
+            return literalChildren.computeIfAbsent(segment, key -> new Node<>());
+        }
+
+        Node<H> parameterChild(ParameterType type) {
+            if (parameterChildren[type.ordinal()] == null) {
+                parameterChildren[type.ordinal()] = new Node<>();
+            }
+            return parameterChildren[type.ordinal()];
+        }
+
+        @SuppressWarnings("unchecked")
+        void compile() {
+            int capacity = Integer.highestOneBit(Math.max(1, literalChildren.size()) * 2 - 1) << 1;
+            keys = new String[capacity];
+            children = new Node[capacity];
+            mask = capacity - 1;
+            for (Map.Entry<String, Node<H>> entry : literalChildren.entrySet()) {
+                int slot = spread(entry.getKey().hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry.getKey();
+                children[slot] = entry.getValue();
+                entry.getValue().compile();
+            }
+            literalChildren = null;
+            for (Node<H> parameterChild : parameterChildren) {
+                if (parameterChild != null) {
+                    parameterChild.compile();
+                }
+            }
+        }
+
+        Route<H> match(String path, int start, int methodIndex) {
+            if (start >= path.length()) {
+                return routes[methodIndex];
+            }
+
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+
+            Node<H> literal = literal(path, start, end);
+            if (literal != null) {
+                Route<H> route = literal.match(path, end + 1, methodIndex);
+                if (route != null) {
+                    return route;
+                }
+            }
+            // a parameter never matches an empty segment
+            if (end == start) {
+                return null;
+            }
+            for (ParameterType type : ParameterType.values()) {
+                Node<H> parameterChild = parameterChildren[type.ordinal()];
+                if (parameterChild != null && type.accepts(path, start, end)) {
+                    Route<H> route = parameterChild.match(path, end + 1, methodIndex);
+                    if (route != null) {
+                        return route;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Node<H> literal(String path, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            final int length = end - start;
+            for (int slot = spread(hash) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                String key = keys[slot];
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return children[slot];
+                }
+            }
+            return null;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.task11;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of the Tables catalog, shared by all requests of the container.
+ * <p>
+ * Every change to Tables bumps a version stamp in the catalog versions table (see {@link TablesStreamHandler}).
+ * A loaded snapshot is served without any I/O for {@link #REVALIDATE_AFTER_MILLIS}; after that a single GetItem on the
+ * stamp decides whether it is still current. A snapshot is never served once it is older than
+ * {@link #MAX_STALENESS_MILLIS}, even if the stamp did not move.
+ */
+public class TablesCatalog {
+    public static final String TABLES_VERSION_ID = "Tables";
+    private static final long REVALIDATE_AFTER_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_STALENESS_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final AmazonDynamoDB client;
+    private final ParallelScanner scanner;
+    private final String tablesTableName;
+    private final String versionsTableName;
+
+    private volatile Snapshot snapshot;
+
+    public TablesCatalog(AmazonDynamoDB client, ParallelScanner scanner, String tablesTableName, String versionsTableName) {
+        this.client = client;
+        this.scanner = scanner;
+        this.tablesTableName = tablesTableName;
+        this.versionsTableName = versionsTableName;
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (current != null && now - current.checkedAt < REVALIDATE_AFTER_MILLIS && now - current.loadedAt < MAX_STALENESS_MILLIS) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = snapshot;
+            now = System.currentTimeMillis();
+            if (current != null && now - current.checkedAt < REVALIDATE_AFTER_MILLIS && now - current.loadedAt < MAX_STALENESS_MILLIS) {
+                return current;
+            }
+
+            // the stamp is read before the scan, so a change that lands mid-scan triggers another reload later
+            long version = readVersion();
+            if (current != null && current.version == version && now - current.loadedAt < MAX_STALENESS_MILLIS) {
+                current = current.checkedAt(now);
+            } else {
+                current = load(version, now);
+            }
+            snapshot = current;
+            return current;
+        }
+    }
+
+    /**
+     * Drops the snapshot so that the next read goes to DynamoDB. Called after this container wrote to Tables.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot load(long version, long now) {
+        List<Map<String, AttributeValue>> items = scanner.scanAll(tablesTableName, item -> item);
+
+        Map<String, Map<String, AttributeValue>> byId = new HashMap<>();
+        Map<Integer, Map<String, AttributeValue>> byNumber = new HashMap<>();
+        for (Map<String, AttributeValue> item : items) {
+            byId.put(item.get("id").getS(), item);
+            byNumber.put(Integer.valueOf(item.get("number").getN()), item);
+        }
+
+        return new Snapshot(version, Collections.unmodifiableList(new ArrayList<>(items)),
+                Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byNumber), now, now);
+    }
+
+    private long readVersion() {
+        if (versionsTableName == null) {
+            return 0;
+        }
+
+        Map<String, AttributeValue> item = client.getItem(new GetItemRequest()
+                .withTableName(versionsTableName)
+                .withKey(Map.of("id", new AttributeValue(TABLES_VERSION_ID)))
+                .withConsistentRead(true))
+                .getItem();
+
+        return item == null || item.get("version") == null ? 0 : Long.parseLong(item.get("version").getN());
+    }
+
+    public record Snapshot(long version,
+                           List<Map<String, AttributeValue>> items,
+                           Map<String, Map<String, AttributeValue>> byId,
+                           Map<Integer, Map<String, AttributeValue>> byNumber,
+                           long loadedAt,
+                           long checkedAt) {
+
+        private Snapshot checkedAt(long time) {
+            return new Snapshot(version, items, byId, byNumber, loadedAt, time);
+        }
+    }
+}
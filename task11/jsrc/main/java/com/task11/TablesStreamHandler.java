@@ -0,0 +1,58 @@
+package com.task11;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.epam.aws.AwsClients;
+import com.syndicate.deployment.annotations.environment.EnvironmentVariable;
+import com.syndicate.deployment.annotations.environment.EnvironmentVariables;
+import com.syndicate.deployment.annotations.events.DynamoDbTriggerEventSource;
+import com.syndicate.deployment.annotations.lambda.LambdaHandler;
+import com.syndicate.deployment.annotations.resources.DependsOn;
+import com.syndicate.deployment.model.DeploymentRuntime;
+import com.syndicate.deployment.model.ResourceType;
+import com.syndicate.deployment.model.RetentionSetting;
+
+import java.util.Map;
+
+/**
+ * Bumps the Tables version stamp whenever the Tables catalog changes, so that {@link TablesCatalog}
+ * in every api_handler container reloads on its next revalidation.
+ */
+@LambdaHandler(lambdaName = "tables_stream_handler",
+        roleName = "tables_stream_handler-role",
+        isPublishVersion = false,
+        runtime = DeploymentRuntime.JAVA17,
+        logsExpiration = RetentionSetting.SYNDICATE_ALIASES_SPECIFIED
+)
+@DependsOn(name = "Tables", resourceType = ResourceType.DYNAMODB_TABLE)
+@DependsOn(name = "CatalogVersions", resourceType = ResourceType.DYNAMODB_TABLE)
+@DynamoDbTriggerEventSource(targetTable = "Tables", batchSize = 100)
+@EnvironmentVariables(
+        value = {
+                @EnvironmentVariable(key = "catalog_versions_table", value = "${catalog_versions_table}")
+        }
+)
+public class TablesStreamHandler implements RequestHandler<DynamodbEvent, Void> {
+    private static AmazonDynamoDB client = AwsClients.dynamoDB();
+
+    public Void handleRequest(DynamodbEvent dynamodbEvent, Context context) {
+        LambdaLogger logger = context.getLogger();
+        logger.log("Tables changes: " + dynamodbEvent.getRecords().size());
+
+        // one bump per batch is enough: readers only compare stamps for equality
+        UpdateItemRequest updateRequest = new UpdateItemRequest()
+                .withTableName(System.getenv("catalog_versions_table"))
+                .withKey(Map.of("id", new AttributeValue(TablesCatalog.TABLES_VERSION_ID)))
+                .withUpdateExpression("ADD #version :one")
+                .withExpressionAttributeNames(Map.of("#version", "version"))
+                .withExpressionAttributeValues(Map.of(":one", new AttributeValue().withN("1")));
+        client.updateItem(updateRequest);
+
+        return null;
+    }
+}
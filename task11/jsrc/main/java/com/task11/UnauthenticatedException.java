@@ -0,0 +1,16 @@
+package com.task11;
+
+/**
+ * The request carries no token, or one that is malformed, not signed by the user pool, expired or issued for
+ * another client. Answered with 401.
+ */
+public class UnauthenticatedException extends RuntimeException {
+
+    public UnauthenticatedException(String message) {
+        super(message);
+    }
+
+    public UnauthenticatedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}